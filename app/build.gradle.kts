@@ -32,12 +32,29 @@ dependencies {
 
     // Database layer with PostgreSQL
     implementation("org.springframework.boot:spring-boot-starter-data-jpa")
-    runtimeOnly("org.postgresql:postgresql")
+    implementation("org.postgresql:postgresql")
 
     // Test dependencies
     testImplementation("org.springframework.boot:spring-boot-starter-test")
+    // Real PostgreSQL for the repository tests: the atomic writes rely on its locking and upsert semantics
+    testImplementation("io.zonky.test:embedded-postgres:2.1.0")
+    testImplementation(platform("io.zonky.test.postgres:embedded-postgres-binaries-bom:16.4.0"))
 }
 
 tasks.withType<Test> {
     useJUnitPlatform()
-}
\ No newline at end of file
+}
+// Routing strategy benchmark (lookup cost, memory, balance, key movement)
+sourceSets {
+    create("benchmark") {
+        compileClasspath += sourceSets.main.get().output
+        runtimeClasspath += sourceSets.main.get().output
+    }
+}
+
+tasks.register<JavaExec>("routingBenchmark") {
+    description = "Compares the routing strategies on lookup cost, memory and key movement"
+    group = "verification"
+    classpath = sourceSets["benchmark"].runtimeClasspath
+    mainClass.set("org.limedb.node.routing.RoutingBenchmark")
+}
@@ -0,0 +1,144 @@
+package org.limedb.node.routing;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * Compares the routing strategies on lookup cost, memory, balance and key movement
+ * when a node joins, leaves or has its weight doubled. Run with: gradle :app:routingBenchmark
+ */
+public class RoutingBenchmark {
+
+    private static final int NODES = 5;
+    private static final int KEYS = 200_000;
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        Map<String, Supplier<RoutingStrategy>> strategies = new LinkedHashMap<>();
+        strategies.put("consistent-hash (3 vnodes)", () -> new ConsistentHashRing(3));
+        strategies.put("consistent-hash (150 vnodes)", () -> new ConsistentHashRing(150));
+        strategies.put("consistent-hash (1000 vnodes)", () -> new ConsistentHashRing(1000));
+        strategies.put("jump", JumpHashRouting::new);
+        strategies.put("rendezvous", RendezvousRouting::new);
+        strategies.put("maglev (65537 slots)", () -> new MaglevRouting(65537));
+
+        List<String> nodes = new ArrayList<>();
+        for (int i = 1; i <= NODES; i++) {
+            nodes.add("http://node-" + i + ":7001");
+        }
+        String[] keys = new String[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            keys[i] = "key_" + i;
+        }
+
+        System.out.printf("%d nodes, %d keys%n%n", NODES, KEYS);
+        System.out.printf("%-30s %10s %12s %12s %12s %12s %12s%n",
+                "strategy", "ns/lookup", "memory B", "max/mean", "moved +1", "moved -1", "moved 2x");
+
+        for (Map.Entry<String, Supplier<RoutingStrategy>> entry : strategies.entrySet()) {
+            long memory = measureMemory(entry.getValue(), nodes);
+
+            RoutingStrategy strategy = entry.getValue().get();
+            strategy.initializeRing(nodes);
+            double nanos = measureLookup(strategy, keys);
+
+            String[] before = owners(strategy, keys);
+            double skew = maxOverMean(before, NODES);
+
+            // Node joins: ideal movement is 1/(n+1) of the keys
+            strategy.addNode("http://node-" + (NODES + 1) + ":7001");
+            double movedOnAdd = moved(before, owners(strategy, keys));
+
+            // A node in the middle of the membership list leaves: ideal movement is 1/n
+            strategy.initializeRing(nodes);
+            strategy.removeNode(nodes.get(NODES / 2));
+            double movedOnRemove = moved(before, owners(strategy, keys));
+
+            // One node doubles its weight: ideal movement is 2/(n+1) - 1/n
+            strategy.initializeRing(nodes);
+            strategy.addNode(nodes.get(0), 2.0);
+            double movedOnWeight = moved(before, owners(strategy, keys));
+
+            System.out.printf("%-30s %10.1f %12d %12.3f %11.1f%% %11.1f%% %11.1f%%%n",
+                    entry.getKey(), nanos, memory, skew,
+                    movedOnAdd * 100, movedOnRemove * 100, movedOnWeight * 100);
+        }
+
+        System.out.printf("%nideal movement: +1 node %.1f%%, -1 node %.1f%%, 2x weight %.1f%%%n",
+                100.0 / (NODES + 1), 100.0 / NODES, 100.0 * (2.0 / (NODES + 1) - 1.0 / NODES));
+    }
+
+    private static double measureLookup(RoutingStrategy strategy, String[] keys) {
+        long sink = 0;
+        double best = Double.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (String key : keys) {
+                sink += strategy.getNode(key).length();
+            }
+            best = Math.min(best, (double) (System.nanoTime() - start) / keys.length);
+        }
+        if (sink == 42) {
+            System.out.println(); // keep the lookups from being optimized away
+        }
+        return best;
+    }
+
+    /**
+     * Retained size of the routing structure, computed from its element counts rather than
+     * sampled from the heap, for a 64-bit JVM with compressed references (4-byte references,
+     * 12-byte object headers, 8-byte alignment). Node URL strings are shared with the
+     * membership list and not counted.
+     */
+    private static long measureMemory(Supplier<RoutingStrategy> factory, List<String> nodes) {
+        RoutingStrategy strategy = factory.get();
+        strategy.initializeRing(nodes);
+        if (strategy.getNodeCount() != nodes.size()) {
+            throw new IllegalStateException("Unexpected node count");
+        }
+        Map<String, Object> stats = strategy.getRingStats();
+        return switch (strategy.getName()) {
+            // Skip list entry: node (key, value, next) + boxed Long key + on average 1/3 of an index (node, down, right)
+            case ConsistentHashRing.NAME -> (Integer) stats.get("virtualNodes") * (24L + 24 + 24 / 3);
+            // One reference per bucket in the ArrayList's backing array
+            case JumpHashRouting.NAME -> array(((List<?>) stats.get("bucketOrder")).size(), 4);
+            // One candidate record (url, seed, weight) per node plus the list's array
+            case RendezvousRouting.NAME -> strategy.getNodeCount() * 32L + array(strategy.getNodeCount(), 4);
+            // One reference per lookup table slot
+            case MaglevRouting.NAME -> array((Integer) stats.get("tableSize"), 4);
+            default -> throw new IllegalStateException("Unknown strategy " + strategy.getName());
+        };
+    }
+
+    // Array header plus elements, rounded up to the 8-byte alignment
+    private static long array(int length, int elementSize) {
+        return (16 + (long) length * elementSize + 7) & ~7L;
+    }
+
+    private static String[] owners(RoutingStrategy strategy, String[] keys) {
+        String[] owners = new String[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            owners[i] = strategy.getNode(keys[i]);
+        }
+        return owners;
+    }
+
+    private static double moved(String[] before, String[] after) {
+        int moved = 0;
+        for (int i = 0; i < before.length; i++) {
+            if (!before[i].equals(after[i])) {
+                moved++;
+            }
+        }
+        return (double) moved / before.length;
+    }
+
+    private static double maxOverMean(String[] owners, int nodes) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (String owner : owners) {
+            counts.merge(owner, 1, Integer::sum);
+        }
+        int max = Collections.max(counts.values());
+        return max / ((double) owners.length / nodes);
+    }
+}
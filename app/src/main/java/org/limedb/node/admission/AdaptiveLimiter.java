@@ -0,0 +1,186 @@
+package org.limedb.node.admission;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Concurrency limit that adapts to observed latency (gradient algorithm).
+ * A long-term average RTT is compared with the average RTT of each window of samples:
+ * while requests complete about as fast as usual the limit grows by a small queue allowance,
+ * and as latency rises above the tolerated ratio the limit shrinks proportionally. Timeouts and overload errors cut the
+ * limit multiplicatively, like AIMD. Work beyond the limit is rejected instead of queued.
+ */
+public class AdaptiveLimiter {
+
+    // How much slower than the long-term RTT a window may be before the limit shrinks
+    private static final double TOLERANCE = 1.5;
+    // Weight of each new limit estimate
+    private static final double SMOOTHING = 0.2;
+    // Samples averaged into one short-term RTT, the limit is updated once per window
+    private static final int WINDOW_SAMPLES = 20;
+    // Number of windows the long-term RTT average covers
+    private static final int LONG_WINDOW = 100;
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    // Written under this, read without locking on the acquire path
+    private volatile double limit;
+    // Guarded by this
+    private double longRtt;
+    private double windowRttSum;
+    private int windowSamples;
+    private int windowMaxInFlight;
+
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    public AdaptiveLimiter(String name, int initialLimit, int minLimit, int maxLimit) {
+        if (minLimit < 1 || minLimit > maxLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Invalid limits for " + name + ": initial " + initialLimit
+                    + ", min " + minLimit + ", max " + maxLimit);
+        }
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = initialLimit;
+    }
+
+    /**
+     * Take a slot if the current limit allows it
+     */
+    public Optional<Permit> tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= getLimit()) {
+                rejected.incrementAndGet();
+                return Optional.empty();
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        accepted.incrementAndGet();
+        return Optional.of(new Permit(System.nanoTime(), current + 1));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    /**
+     * Get limiter statistics
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("limit", getLimit());
+        stats.put("minLimit", minLimit);
+        stats.put("maxLimit", maxLimit);
+        stats.put("inFlight", inFlight.get());
+        stats.put("accepted", accepted.get());
+        stats.put("rejected", rejected.get());
+        stats.put("dropped", dropped.get());
+        synchronized (this) {
+            stats.put("longRttMs", longRtt / 1_000_000.0);
+        }
+        return stats;
+    }
+
+    // Package-private so tests can feed latencies without sleeping
+    synchronized void onSample(long rttNanos, int inFlightAtStart) {
+        windowRttSum += rttNanos;
+        windowMaxInFlight = Math.max(windowMaxInFlight, inFlightAtStart);
+        if (++windowSamples < WINDOW_SAMPLES) {
+            return;
+        }
+        double shortRtt = Math.max(windowRttSum / windowSamples, 1);
+        int maxInFlight = windowMaxInFlight;
+        windowRttSum = 0;
+        windowSamples = 0;
+        windowMaxInFlight = 0;
+
+        if (longRtt == 0) {
+            longRtt = shortRtt;
+        } else {
+            longRtt += (shortRtt - longRtt) / LONG_WINDOW;
+        }
+        // Let the baseline recover quickly once a slow period is over
+        if (longRtt > 2.0 * shortRtt) {
+            longRtt *= 0.95;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRtt / shortRtt));
+        // Only probe upwards when the limit is actually being used
+        if (gradient >= 1.0 && maxInFlight < limit / 2) {
+            return;
+        }
+        double estimate = limit * gradient + Math.sqrt(limit);
+        limit = clamp(limit * (1 - SMOOTHING) + estimate * SMOOTHING);
+    }
+
+    private synchronized void onDropped() {
+        dropped.incrementAndGet();
+        limit = clamp(limit * BACKOFF_RATIO);
+    }
+
+    private double clamp(double value) {
+        return Math.max(minLimit, Math.min(maxLimit, value));
+    }
+
+    /**
+     * One admitted unit of work; exactly one of the completion methods must be called
+     */
+    public final class Permit {
+        private final long startNanos;
+        private final int inFlightAtStart;
+
+        private Permit(long startNanos, int inFlightAtStart) {
+            this.startNanos = startNanos;
+            this.inFlightAtStart = inFlightAtStart;
+        }
+
+        /**
+         * Completed normally, the latency counts towards the limit
+         */
+        public void success() {
+            inFlight.decrementAndGet();
+            onSample(System.nanoTime() - startNanos, inFlightAtStart);
+        }
+
+        /**
+         * Timed out or failed from overload, back off
+         */
+        public void dropped() {
+            inFlight.decrementAndGet();
+            onDropped();
+        }
+
+        /**
+         * Failed for reasons unrelated to load (bad request), no sample
+         */
+        public void ignore() {
+            inFlight.decrementAndGet();
+        }
+    }
+}
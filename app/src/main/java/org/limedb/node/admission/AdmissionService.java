@@ -0,0 +1,156 @@
+package org.limedb.node.admission;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Admission control for request handling.
+ * Local repository work and the forwarding path to each peer get their own adaptive
+ * limiter, so a slow database or a slow peer only sheds the requests that depend on it.
+ * Rejected work fails immediately with OverloadedException (503 with Retry-After)
+ * instead of waiting for a JDBC connection or a forwarding timeout.
+ */
+@Service
+public class AdmissionService {
+
+    private final boolean enabled;
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long retryAfterSeconds;
+    private final MeterRegistry meterRegistry;
+
+    private final AdaptiveLimiter localLimiter;
+    private final Map<String, AdaptiveLimiter> peerLimiters = new ConcurrentHashMap<>();
+
+    public AdmissionService(MeterRegistry meterRegistry,
+                            @Value("${node.admission.enabled:true}") boolean enabled,
+                            @Value("${node.admission.initial-limit:20}") int initialLimit,
+                            @Value("${node.admission.min-limit:4}") int minLimit,
+                            @Value("${node.admission.max-limit:500}") int maxLimit,
+                            @Value("${node.admission.retry-after-seconds:1}") long retryAfterSeconds) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.localLimiter = register(new AdaptiveLimiter("local", initialLimit, minLimit, maxLimit), "local", "");
+    }
+
+    /**
+     * Run repository work for a key this node owns
+     */
+    public <T> T local(Supplier<T> work) {
+        return run(localLimiter, work);
+    }
+
+    /**
+     * Run a request forwarded to a peer; an overloaded peer (503) also backs off this path
+     */
+    public <T> T forward(String peerUrl, Supplier<T> work) {
+        AdaptiveLimiter limiter = peerLimiters.computeIfAbsent(peerUrl,
+                url -> register(new AdaptiveLimiter(url, initialLimit, minLimit, maxLimit), "peer", url));
+        try {
+            return run(limiter, work);
+        } catch (HttpServerErrorException.ServiceUnavailable e) {
+            String retryAfter = e.getResponseHeaders() != null ? e.getResponseHeaders().getFirst("Retry-After") : null;
+            throw new OverloadedException("Peer node " + peerUrl + " is overloaded", parseRetryAfter(retryAfter));
+        }
+    }
+
+    /**
+     * Get admission control statistics
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("retryAfterSeconds", retryAfterSeconds);
+        stats.put("local", localLimiter.getStats());
+        Map<String, Object> peers = new HashMap<>();
+        peerLimiters.forEach((url, limiter) -> peers.put(url, limiter.getStats()));
+        stats.put("peers", peers);
+        return stats;
+    }
+
+    private <T> T run(AdaptiveLimiter limiter, Supplier<T> work) {
+        if (!enabled) {
+            return work.get();
+        }
+        Optional<AdaptiveLimiter.Permit> acquired = limiter.tryAcquire();
+        if (acquired.isEmpty()) {
+            throw new OverloadedException("Node overloaded (" + limiter.getName() + " limit "
+                    + limiter.getLimit() + " reached)", retryAfterSeconds);
+        }
+
+        AdaptiveLimiter.Permit permit = acquired.get();
+        try {
+            T result = work.get();
+            permit.success();
+            return result;
+        } catch (HttpClientErrorException.NotFound e) {
+            // A missing key is a normal answer from the peer, its latency is a valid sample
+            permit.success();
+            throw e;
+        } catch (IllegalArgumentException | HttpClientErrorException e) {
+            permit.ignore();
+            throw e;
+        } catch (RuntimeException | Error e) {
+            permit.dropped();
+            throw e;
+        }
+    }
+
+    /**
+     * Seconds from a peer's Retry-After header, either delta-seconds or an HTTP date;
+     * a missing or unparsable header falls back to our own retry delay
+     */
+    private long parseRetryAfter(String retryAfter) {
+        if (retryAfter == null || retryAfter.isBlank()) {
+            return retryAfterSeconds;
+        }
+        try {
+            long seconds = Long.parseLong(retryAfter.trim());
+            return seconds >= 0 ? seconds : retryAfterSeconds;
+        } catch (NumberFormatException e) {
+            // Not delta-seconds, try the HTTP-date form
+        }
+        try {
+            ZonedDateTime date = ZonedDateTime.parse(retryAfter.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+            return Math.max(0, Duration.between(ZonedDateTime.now(date.getZone()), date).toSeconds());
+        } catch (DateTimeParseException e) {
+            return retryAfterSeconds;
+        }
+    }
+
+    private AdaptiveLimiter register(AdaptiveLimiter limiter, String scope, String peer) {
+        Gauge.builder("limedb.admission.limit", limiter, AdaptiveLimiter::getLimit)
+                .tag("scope", scope).tag("peer", peer)
+                .register(meterRegistry);
+        Gauge.builder("limedb.admission.in_flight", limiter, AdaptiveLimiter::getInFlight)
+                .tag("scope", scope).tag("peer", peer)
+                .register(meterRegistry);
+        FunctionCounter.builder("limedb.admission.rejected", limiter, AdaptiveLimiter::getRejected)
+                .tag("scope", scope).tag("peer", peer)
+                .register(meterRegistry);
+        FunctionCounter.builder("limedb.admission.dropped", limiter, AdaptiveLimiter::getDropped)
+                .tag("scope", scope).tag("peer", peer)
+                .register(meterRegistry);
+        return limiter;
+    }
+}
@@ -0,0 +1,18 @@
+package org.limedb.node.admission;
+
+/**
+ * Thrown when work is rejected by admission control; callers should retry after the hint
+ */
+public class OverloadedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public OverloadedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -1,9 +1,17 @@
 package org.limedb.node.controller;
 
+import org.limedb.node.admission.AdmissionService;
+import org.limedb.node.admission.OverloadedException;
+import org.limedb.node.dto.CompareAndSetRequest;
+import org.limedb.node.dto.CounterRequest;
+import org.limedb.node.dto.EntryResponse;
+import org.limedb.node.dto.ExpireRequest;
 import org.limedb.node.dto.SetRequest;
+import org.limedb.node.hotkey.HotKeyService;
 import org.limedb.node.service.NodeService;
 import org.limedb.node.routing.RoutingService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -16,6 +24,8 @@ import java.util.Map;
 public class NodeController {
     private final NodeService service;
     private final RoutingService routingService;
+    private final AdmissionService admissionService;
+    private final HotKeyService hotKeyService;
     
     @Autowired
     private int nodeId;
@@ -23,9 +33,12 @@ public class NodeController {
     @Autowired
     private List<String> peerUrls;
 
-    public NodeController(NodeService service, RoutingService routingService) {
+    public NodeController(NodeService service, RoutingService routingService, AdmissionService admissionService,
+                          HotKeyService hotKeyService) {
         this.service = service;
         this.routingService = routingService;
+        this.admissionService = admissionService;
+        this.hotKeyService = hotKeyService;
     }
 
     // GET /get/:key - Get value of a key (with peer-to-peer routing)
@@ -33,17 +46,25 @@ public class NodeController {
     public ResponseEntity<String> get(@PathVariable String key) {
         try {
             return service.handleGet(key);
+        } catch (OverloadedException e) {
+            return handleOverloaded(e);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Error: " + e.getMessage());
         }
     }
 
-    // POST /set - Set value of a key (with peer-to-peer routing)
+    // POST /set - Set value of a key, optionally with ttlMillis (with peer-to-peer routing)
     @PostMapping("/set")
     public ResponseEntity<String> set(@RequestBody SetRequest request) {
+        if (request.ttlMillis() != null && request.ttlMillis() <= 0) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Error: ttlMillis must be positive");
+        }
         try {
-            return service.handleSet(request.key(), request.value());
+            return service.handleSet(request.key(), request.value(),
+                    request.ttlMillis() != null ? request.ttlMillis() : 0);
+        } catch (OverloadedException e) {
+            return handleOverloaded(e);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Error: " + e.getMessage());
@@ -55,6 +76,94 @@ public class NodeController {
     public ResponseEntity<String> delete(@PathVariable String key) {
         try {
             return service.handleDelete(key);
+        } catch (OverloadedException e) {
+            return handleOverloaded(e);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error: " + e.getMessage());
+        }
+    }
+
+    // POST /expire - Set a time to live in seconds on an existing key ("1" if applied, "0" if missing)
+    @PostMapping("/expire")
+    public ResponseEntity<String> expire(@RequestBody ExpireRequest request) {
+        try {
+            return service.handleExpire(request.key(), request.seconds());
+        } catch (OverloadedException e) {
+            return handleOverloaded(e);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error: " + e.getMessage());
+        }
+    }
+
+    // GET /entry/:key - Get value and version of a key
+    @GetMapping("/entry/{key}")
+    public ResponseEntity<?> getEntry(@PathVariable String key) {
+        try {
+            return service.handleGetVersioned(key);
+        } catch (OverloadedException e) {
+            return handleOverloaded(e);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error: " + e.getMessage());
+        }
+    }
+
+    // POST /incr - Atomically add delta (default 1) to an integer value at the owner
+    @PostMapping("/incr")
+    public ResponseEntity<?> increment(@RequestBody CounterRequest request) {
+        try {
+            return service.handleIncrement(request.key(), request.delta() != null ? request.delta() : 1);
+        } catch (OverloadedException e) {
+            return handleOverloaded(e);
+        } catch (IllegalArgumentException e) {
+            return handleBadRequest(e);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error: " + e.getMessage());
+        }
+    }
+
+    // POST /decr - Atomically subtract delta (default 1) from an integer value at the owner
+    @PostMapping("/decr")
+    public ResponseEntity<?> decrement(@RequestBody CounterRequest request) {
+        try {
+            long delta = Math.negateExact(request.delta() != null ? request.delta() : 1);
+            return service.handleIncrement(request.key(), delta);
+        } catch (ArithmeticException e) {
+            // Long.MIN_VALUE has no positive counterpart
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Error: delta is out of range");
+        } catch (OverloadedException e) {
+            return handleOverloaded(e);
+        } catch (IllegalArgumentException e) {
+            return handleBadRequest(e);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error: " + e.getMessage());
+        }
+    }
+
+    // POST /cas - Set value only if the stored version matches (0 = key must not exist)
+    @PostMapping("/cas")
+    public ResponseEntity<?> compareAndSet(@RequestBody CompareAndSetRequest request) {
+        try {
+            return service.handleCompareAndSet(request.key(), request.value(), request.expectedVersion());
+        } catch (OverloadedException e) {
+            return handleOverloaded(e);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error: " + e.getMessage());
+        }
+    }
+
+    // POST /getset - Set value and return the previous one
+    @PostMapping("/getset")
+    public ResponseEntity<?> getAndSet(@RequestBody SetRequest request) {
+        try {
+            return service.handleGetAndSet(request.key(), request.value());
+        } catch (OverloadedException e) {
+            return handleOverloaded(e);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Error: " + e.getMessage());
@@ -72,15 +181,35 @@ public class NodeController {
         ));
     }
 
-    // GET /cluster/ring - Show consistent hash ring statistics
+    // GET /cluster/admission - Concurrency limits, in-flight work and rejections (local and per peer)
+    @GetMapping("/cluster/admission")
+    public ResponseEntity<Map<String, Object>> admissionState() {
+        return ResponseEntity.ok(admissionService.getStats());
+    }
+
+    // GET /cluster/hotkeys - Hottest keys and busiest ring ranges across the cluster (?local=true for this node only)
+    @GetMapping("/cluster/hotkeys")
+    public ResponseEntity<Map<String, Object>> hotKeys(@RequestParam(defaultValue = "false") boolean local) {
+        try {
+            return ResponseEntity.ok(local ? hotKeyService.getLocalStats() : hotKeyService.getClusterStats());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // GET /cluster/ring - Show consistent hash ring statistics (?ranges=true lists ranges even when there are many)
     @GetMapping("/cluster/ring")
-    public ResponseEntity<Map<String, Object>> ringState() {
+    public ResponseEntity<Map<String, Object>> ringState(@RequestParam(defaultValue = "false") boolean ranges) {
         try {
             Map<String, Object> ringStats = routingService.getRingStatistics();
             ringStats.put("currentNode", routingService.getCurrentNodeUrl());
             ringStats.put("allNodes", routingService.getAllNodes());
-            ringStats.put("ranges", routingService.getNodeRanges());
-            ringStats.put("rangesDegrees", routingService.getNodeRangesDegrees());
+            ringStats.put("rangeCount", routingService.getRangeCount());
+            if (ranges || routingService.rangesListable()) {
+                ringStats.put("ranges", routingService.getNodeRanges());
+                ringStats.put("rangesDegrees", routingService.getNodeRangesDegrees());
+            }
             return ResponseEntity.ok(ringStats);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -88,6 +217,19 @@ public class NodeController {
         }
     }
 
+    // Shed load fast: the client should retry after the hint instead of waiting on a saturated node
+    @ExceptionHandler(OverloadedException.class)
+    public ResponseEntity<String> handleOverloaded(OverloadedException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body("Error: " + ex.getMessage());
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleBadRequest(IllegalArgumentException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Error: " + ex.getMessage());
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<String> handleException(Exception ex) {
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Error: " + ex.getMessage());
@@ -0,0 +1,63 @@
+package org.limedb.node.controller;
+
+import org.limedb.node.dto.KeyValue;
+import org.limedb.node.dto.RepairHashesRequest;
+import org.limedb.node.repair.AntiEntropyService;
+import org.limedb.node.repair.MerkleTreeIndex;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Internal node-to-node endpoints for Merkle tree based anti-entropy repair
+ */
+@RestController
+@RequestMapping("/api/v1/internal/repair")
+public class RepairController {
+    private final MerkleTreeIndex treeIndex;
+    private final AntiEntropyService antiEntropyService;
+
+    public RepairController(MerkleTreeIndex treeIndex, AntiEntropyService antiEntropyService) {
+        this.treeIndex = treeIndex;
+        this.antiEntropyService = antiEntropyService;
+    }
+
+    // POST /internal/repair/hashes - Merkle node hashes for the keys this node owns
+    @PostMapping("/hashes")
+    public ResponseEntity<?> hashes(@RequestBody RepairHashesRequest request) {
+        try {
+            return ResponseEntity.ok(treeIndex.getHashes(request.owner(), request.depth(), request.indices()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Error: " + e.getMessage());
+        }
+    }
+
+    // POST /internal/repair/ingest - Accept entries streamed from a peer during repair
+    @PostMapping("/ingest")
+    public ResponseEntity<String> ingest(@RequestBody List<KeyValue> entries) {
+        return ResponseEntity.ok(String.valueOf(antiEntropyService.ingest(entries)));
+    }
+
+    // POST /internal/repair/run - Trigger a repair pass immediately
+    @PostMapping("/run")
+    public ResponseEntity<Map<String, Object>> run() {
+        antiEntropyService.runRepair();
+        return ResponseEntity.ok(antiEntropyService.getStats());
+    }
+
+    // GET /internal/repair/status - Merkle index and repair statistics
+    @GetMapping("/status")
+    public ResponseEntity<Map<String, Object>> status() {
+        return ResponseEntity.ok(antiEntropyService.getStats());
+    }
+
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<String> handleException(Exception ex) {
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Error: " + ex.getMessage());
+    }
+}
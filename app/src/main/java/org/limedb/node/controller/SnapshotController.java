@@ -0,0 +1,48 @@
+package org.limedb.node.controller;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.limedb.node.routing.HashRange;
+import org.limedb.node.snapshot.SnapshotService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/snapshot")
+public class SnapshotController {
+    private final SnapshotService snapshotService;
+
+    public SnapshotController(SnapshotService snapshotService) {
+        this.snapshotService = snapshotService;
+    }
+
+    // GET /snapshot/export - Stream this node's entries (whole ring or ?start=&end=) as a binary snapshot
+    @GetMapping("/export")
+    public void export(@RequestParam(defaultValue = "" + Long.MIN_VALUE) long start,
+                       @RequestParam(defaultValue = "" + Long.MAX_VALUE) long end,
+                       HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        response.setHeader("Content-Disposition", "attachment; filename=\"limedb-" + start + "-" + end + ".snap\"");
+        snapshotService.export(new HashRange(start, end), response.getOutputStream());
+    }
+
+    // POST /snapshot/import - Bulk load a snapshot, routing each record to its owner
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<Map<String, Object>> importSnapshot(InputStream body,
+                                                              @RequestParam(defaultValue = "false") boolean local) {
+        try {
+            return ResponseEntity.ok(snapshotService.importSnapshot(body, local));
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+}
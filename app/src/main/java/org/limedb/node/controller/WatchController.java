@@ -0,0 +1,49 @@
+package org.limedb.node.controller;
+
+import org.limedb.node.watch.WatchService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+
+/**
+ * Change streams (server-sent events) as a replacement for polling keys
+ */
+@RestController
+@RequestMapping("/api/v1/watch")
+public class WatchController {
+    private final WatchService watchService;
+
+    public WatchController(WatchService watchService) {
+        this.watchService = watchService;
+    }
+
+    // GET /watch?key= or ?prefix= - Stream changes, resumable with Last-Event-ID or ?since=<cursor>
+    @GetMapping
+    public ResponseEntity<SseEmitter> watch(@RequestParam(required = false) String key,
+                                   @RequestParam(required = false) String prefix,
+                                   @RequestParam(required = false) String since,
+                                   @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+                                   @RequestParam(defaultValue = "false") boolean local) {
+        String cursor = since != null ? since : lastEventId;
+        return ResponseEntity.ok()
+                .contentType(MediaType.TEXT_EVENT_STREAM)
+                .body(watchService.watch(key, prefix, cursor, local));
+    }
+
+    // GET /watch/status - Change feed position, history and subscriber statistics
+    @GetMapping("/status")
+    public ResponseEntity<Map<String, Object>> status() {
+        return ResponseEntity.ok(watchService.getStats());
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleBadRequest(IllegalArgumentException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .contentType(MediaType.TEXT_PLAIN)
+                .body("Error: " + ex.getMessage());
+    }
+}
@@ -0,0 +1,7 @@
+package org.limedb.node.dto;
+
+/**
+ * Set the value only if the stored version equals expectedVersion (0 means the key must not exist)
+ */
+public record CompareAndSetRequest(String key, String value, long expectedVersion) {
+}
@@ -0,0 +1,4 @@
+package org.limedb.node.dto;
+
+public record EntryResponse(String key, String value, long version, String previousValue) {
+}
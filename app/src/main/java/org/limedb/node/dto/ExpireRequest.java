@@ -0,0 +1,4 @@
+package org.limedb.node.dto;
+
+public record ExpireRequest(String key, long seconds) {
+}
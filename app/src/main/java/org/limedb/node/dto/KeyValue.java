@@ -0,0 +1,11 @@
+package org.limedb.node.dto;
+
+/**
+ * An entry as moved between nodes; expiresAt is the expiry deadline in epoch millis, or null
+ */
+public record KeyValue(String key, String value, Long expiresAt) {
+
+    public KeyValue(String key, String value) {
+        this(key, value, null);
+    }
+}
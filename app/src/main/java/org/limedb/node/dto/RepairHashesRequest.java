@@ -0,0 +1,7 @@
+package org.limedb.node.dto;
+
+/**
+ * Merkle node hashes requested from an owner for the tree of keys it owns
+ */
+public record RepairHashesRequest(String owner, int depth, int[] indices) {
+}
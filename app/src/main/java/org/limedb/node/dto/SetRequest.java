@@ -1,4 +1,11 @@
 package org.limedb.node.dto;
 
-public record SetRequest(String key, String value) {
-}
\ No newline at end of file
+/**
+ * Store a value; ttlMillis, when given, sets its expiry in the same write
+ */
+public record SetRequest(String key, String value, Long ttlMillis) {
+
+    public SetRequest(String key, String value) {
+        this(key, value, null);
+    }
+}
@@ -0,0 +1,77 @@
+package org.limedb.node.hotkey;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Count-Min sketch over 64-bit key hashes.
+ * Estimates never undercount; with width w and depth d an estimate exceeds the true count
+ * by more than (e / w) * total with probability at most e^-d. Counters are updated without
+ * locking and can be halved periodically so the sketch follows recent traffic.
+ */
+public class CountMinSketch {
+
+    private final int width;
+    private final int depth;
+    private final AtomicLongArray counters;
+
+    public CountMinSketch(int width, int depth) {
+        if (width < 1 || depth < 1) {
+            throw new IllegalArgumentException("Sketch width and depth must be positive");
+        }
+        this.width = width;
+        this.depth = depth;
+        this.counters = new AtomicLongArray(width * depth);
+    }
+
+    /**
+     * Count one occurrence and return the new estimate
+     */
+    public long add(long hash) {
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.incrementAndGet(row * width + index(hash, row)));
+        }
+        return estimate;
+    }
+
+    public long estimate(long hash) {
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.get(row * width + index(hash, row)));
+        }
+        return estimate;
+    }
+
+    /**
+     * Halve every counter (exponential decay of old traffic)
+     */
+    public void halve() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.getAndUpdate(i, count -> count >> 1);
+        }
+    }
+
+    /**
+     * Upper bound of the overcount for a given total, holding with probability 1 - e^-depth
+     */
+    public long errorBound(long total) {
+        return (long) Math.ceil(Math.E / width * total);
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    // Independent row hash: the key hash mixed with a per-row seed (MurmurHash3 finalizer)
+    private int index(long hash, int row) {
+        long h = hash + (row + 1) * 0x9E3779B97F4A7C15L;
+        h = (h ^ (h >>> 33)) * 0xFF51AFD7ED558CCDL;
+        h = (h ^ (h >>> 33)) * 0xC4CEB9A87EC43C2FL;
+        h ^= h >>> 33;
+        return (int) Long.remainderUnsigned(h, width);
+    }
+}
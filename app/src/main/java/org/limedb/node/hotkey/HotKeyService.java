@@ -0,0 +1,265 @@
+package org.limedb.node.hotkey;
+
+import org.limedb.node.routing.HashRange;
+import org.limedb.node.routing.KeyHasher;
+import org.limedb.node.routing.RoutingService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Streaming access statistics for the keys this node owns.
+ * Every request served locally is counted in a Count-Min sketch, which feeds a bounded
+ * top-K table of hot keys, and in a counter for the ring range the key falls into. Counts
+ * are halved on every decay interval, so they follow recent traffic without logging keys.
+ * Strategies without ranges (jump, rendezvous) or with too many to track one by one
+ * (Maglev) are reported as a single range per node: the keys that node owns.
+ * Keys are only counted at their owner, so the cluster view is the sum over all nodes.
+ */
+@Service
+public class HotKeyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(HotKeyService.class);
+
+    private record RangeCounter(HashRange range, String owner, double spacePercent, AtomicLong requests) {}
+
+    private final RoutingService routingService;
+    private final RestTemplate restTemplate;
+    private final boolean enabled;
+    private final int topK;
+    private final CountMinSketch sketch;
+    private final TopKeys topKeys;
+
+    private final AtomicLong totalRequests = new AtomicLong();
+    // Ring ranges keyed by their end hash, mirroring the ring's ceiling lookup
+    private volatile NavigableMap<Long, RangeCounter> ranges = new TreeMap<>();
+    private volatile long rangesForTopology = -1;
+    private volatile long windowStartedMillis = System.currentTimeMillis();
+
+    public HotKeyService(RoutingService routingService, RestTemplate restTemplate,
+                         @Value("${node.hotkeys.enabled:true}") boolean enabled,
+                         @Value("${node.hotkeys.top-k:20}") int topK,
+                         @Value("${node.hotkeys.sketch-width:2048}") int sketchWidth,
+                         @Value("${node.hotkeys.sketch-depth:4}") int sketchDepth) {
+        this.routingService = routingService;
+        this.restTemplate = restTemplate;
+        this.enabled = enabled;
+        this.topK = topK;
+        this.sketch = new CountMinSketch(sketchWidth, sketchDepth);
+        // Track more candidates than reported so keys near the cut are ranked correctly
+        this.topKeys = new TopKeys(topK * 4, sketch);
+    }
+
+    /**
+     * Count one request for a key handled by this node
+     */
+    public void record(String key) {
+        if (!enabled) {
+            return;
+        }
+        long hash = KeyHasher.hash(key);
+        totalRequests.incrementAndGet();
+        topKeys.offer(key, hash, sketch.add(hash));
+
+        NavigableMap<Long, RangeCounter> current = currentRanges();
+        if (!current.isEmpty()) {
+            Map.Entry<Long, RangeCounter> entry = current.ceilingEntry(hash);
+            if (entry == null) {
+                // Wrap around to the first range in the ring
+                entry = current.firstEntry();
+            }
+            entry.getValue().requests().incrementAndGet();
+        }
+    }
+
+    /**
+     * Halve all counts so the statistics follow recent traffic
+     */
+    @Scheduled(initialDelayString = "${node.hotkeys.decay-interval-ms:60000}",
+               fixedDelayString = "${node.hotkeys.decay-interval-ms:60000}")
+    public void decay() {
+        if (!enabled) {
+            return;
+        }
+        sketch.halve();
+        topKeys.decay();
+        totalRequests.getAndUpdate(count -> count >> 1);
+        for (RangeCounter counter : ranges.values()) {
+            counter.requests().getAndUpdate(count -> count >> 1);
+        }
+        windowStartedMillis = System.currentTimeMillis();
+    }
+
+    /**
+     * Hot keys and per-range request counts seen by this node
+     */
+    public Map<String, Object> getLocalStats() {
+        long total = totalRequests.get();
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("node", routingService.getCurrentNodeUrl());
+        stats.put("enabled", enabled);
+        stats.put("totalRequests", total);
+        stats.put("lastDecayMillis", windowStartedMillis);
+        stats.put("sketchWidth", sketch.getWidth());
+        stats.put("sketchDepth", sketch.getDepth());
+        stats.put("estimateErrorBound", sketch.errorBound(total));
+        stats.put("trackedKeys", topKeys.size());
+
+        List<Map<String, Object>> keys = new ArrayList<>();
+        for (TopKeys.HotKey hotKey : topKeys.top(topK)) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("key", hotKey.key());
+            entry.put("count", hotKey.count());
+            keys.add(entry);
+        }
+        stats.put("topKeys", keys);
+
+        List<Map<String, Object>> rangeStats = new ArrayList<>();
+        NavigableMap<Long, RangeCounter> current = currentRanges();
+        if (current.isEmpty() && total > 0) {
+            String node = routingService.getCurrentNodeUrl();
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("owner", node);
+            entry.put("spacePercent", ownershipPercent(node));
+            entry.put("requests", total);
+            rangeStats.add(entry);
+        }
+        for (RangeCounter counter : current.values()) {
+            long requests = counter.requests().get();
+            if (requests == 0) {
+                continue;
+            }
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("start", counter.range().start());
+            entry.put("end", counter.range().end());
+            entry.put("owner", counter.owner());
+            entry.put("spacePercent", counter.spacePercent());
+            entry.put("requests", requests);
+            rangeStats.add(entry);
+        }
+        stats.put("ranges", rangeStats);
+        return stats;
+    }
+
+    /**
+     * Merge the statistics of every node: key counts and range counts are summed
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> getClusterStats() {
+        String currentNode = routingService.getCurrentNodeUrl();
+        Map<String, Object> nodes = new TreeMap<>();
+        Map<String, Long> keyCounts = new HashMap<>();
+        Map<String, Map<String, Object>> rangeTotals = new HashMap<>();
+        long total = 0;
+
+        for (String node : routingService.getAllNodes()) {
+            Map<String, Object> nodeStats;
+            try {
+                nodeStats = node.equals(currentNode)
+                        ? getLocalStats()
+                        : restTemplate.getForObject(node + "/api/v1/cluster/hotkeys?local=true", Map.class);
+            } catch (RestClientException e) {
+                logger.warn("Could not fetch hot key statistics from {}: {}", node, e.getMessage());
+                nodes.put(node, Map.of("error", String.valueOf(e.getMessage())));
+                continue;
+            }
+            if (nodeStats == null) {
+                continue;
+            }
+
+            long nodeTotal = ((Number) nodeStats.get("totalRequests")).longValue();
+            total += nodeTotal;
+            nodes.put(node, Map.of("totalRequests", nodeTotal));
+
+            for (Map<String, Object> hotKey : (List<Map<String, Object>>) nodeStats.get("topKeys")) {
+                keyCounts.merge((String) hotKey.get("key"), ((Number) hotKey.get("count")).longValue(), Long::sum);
+            }
+            for (Map<String, Object> range : (List<Map<String, Object>>) nodeStats.get("ranges")) {
+                // Per-node entries carry no bounds and are merged by owner
+                String rangeId = range.containsKey("start") ? range.get("start") + ":" + range.get("end")
+                        : String.valueOf(range.get("owner"));
+                Map<String, Object> merged = rangeTotals.computeIfAbsent(rangeId, id -> {
+                    Map<String, Object> entry = new LinkedHashMap<>(range);
+                    entry.put("requests", 0L);
+                    return entry;
+                });
+                merged.put("requests", (Long) merged.get("requests") + ((Number) range.get("requests")).longValue());
+            }
+        }
+
+        List<Map<String, Object>> keys = new ArrayList<>();
+        keyCounts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(topK)
+                .forEach(entry -> {
+                    Map<String, Object> hotKey = new LinkedHashMap<>();
+                    hotKey.put("key", entry.getKey());
+                    hotKey.put("count", entry.getValue());
+                    hotKey.put("owner", routingService.getTargetNodeUrl(entry.getKey()));
+                    keys.add(hotKey);
+                });
+
+        List<Map<String, Object>> hotRanges = new ArrayList<>(rangeTotals.values());
+        for (Map<String, Object> range : hotRanges) {
+            long requests = (Long) range.get("requests");
+            double requestPercent = total == 0 ? 0 : requests * 100.0 / total;
+            double spacePercent = ((Number) range.get("spacePercent")).doubleValue();
+            range.put("requestPercent", requestPercent);
+            // Above 1: the range receives more than its share of the hash space would suggest
+            range.put("loadRatio", spacePercent == 0 ? 0 : requestPercent / spacePercent);
+        }
+        hotRanges.sort(Comparator.comparingLong((Map<String, Object> range) -> (Long) range.get("requests")).reversed());
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("totalRequests", total);
+        stats.put("nodes", nodes);
+        stats.put("topKeys", keys);
+        stats.put("ranges", hotRanges.size() > topK ? hotRanges.subList(0, topK) : hotRanges);
+        stats.put("rangesWithTraffic", hotRanges.size());
+        return stats;
+    }
+
+    /**
+     * Range counters for the current ring, recreated (and reset) when the topology changes
+     */
+    private NavigableMap<Long, RangeCounter> currentRanges() {
+        long topology = routingService.getTopologyVersion();
+        if (topology == rangesForTopology) {
+            return ranges;
+        }
+        synchronized (this) {
+            if (topology != rangesForTopology) {
+                NavigableMap<Long, RangeCounter> newRanges = new TreeMap<>();
+                Map<String, List<Map<String, Object>>> nodeRanges =
+                        routingService.rangesListable() ? routingService.getNodeRanges() : Map.of();
+                nodeRanges.forEach((node, ownedRanges) -> {
+                    for (Map<String, Object> range : ownedRanges) {
+                        long start = (Long) range.get("start");
+                        long end = (Long) range.get("end");
+                        double spacePercent = ((Number) range.getOrDefault("percent", 0.0)).doubleValue();
+                        newRanges.put(end, new RangeCounter(new HashRange(start, end), node, spacePercent,
+                                new AtomicLong()));
+                    }
+                });
+                ranges = newRanges;
+                rangesForTopology = topology;
+            }
+            return ranges;
+        }
+    }
+
+    private double ownershipPercent(String node) {
+        Object ownership = routingService.getRingStatistics().get("ownershipPercent");
+        if (ownership instanceof Map<?, ?> percent && percent.get(node) instanceof Number share) {
+            return share.doubleValue();
+        }
+        return 0;
+    }
+}
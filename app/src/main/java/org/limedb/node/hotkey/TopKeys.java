@@ -0,0 +1,80 @@
+package org.limedb.node.hotkey;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded set of candidate hot keys, ranked by their sketch estimates.
+ * Like Space-Saving, a key that is not tracked replaces the least frequent tracked key once
+ * its estimate is higher, so memory stays at the capacity regardless of the key space.
+ * Lookups for tracked keys and for cold keys below the admission threshold take no lock.
+ */
+class TopKeys {
+
+    record HotKey(String key, long hash, long count) {}
+
+    private final int capacity;
+    private final CountMinSketch sketch;
+    // Key -> key hash
+    private final Map<String, Long> tracked = new ConcurrentHashMap<>();
+    // Estimate of the least frequent tracked key when full, a new key has to beat it
+    private volatile long admissionThreshold;
+
+    TopKeys(int capacity, CountMinSketch sketch) {
+        this.capacity = capacity;
+        this.sketch = sketch;
+    }
+
+    void offer(String key, long hash, long estimate) {
+        if (estimate <= admissionThreshold || tracked.containsKey(key)) {
+            return;
+        }
+        synchronized (this) {
+            if (tracked.containsKey(key)) {
+                return;
+            }
+            tracked.put(key, hash);
+            if (tracked.size() <= capacity) {
+                return;
+            }
+
+            String coldest = null;
+            long coldestCount = Long.MAX_VALUE;
+            long secondCount = Long.MAX_VALUE;
+            for (Map.Entry<String, Long> entry : tracked.entrySet()) {
+                long count = sketch.estimate(entry.getValue());
+                if (count < coldestCount) {
+                    secondCount = coldestCount;
+                    coldest = entry.getKey();
+                    coldestCount = count;
+                } else if (count < secondCount) {
+                    secondCount = count;
+                }
+            }
+            tracked.remove(coldest);
+            admissionThreshold = secondCount;
+        }
+    }
+
+    /**
+     * Tracked keys with their current estimates, most frequent first
+     */
+    List<HotKey> top(int limit) {
+        List<HotKey> keys = new ArrayList<>();
+        tracked.forEach((key, hash) -> keys.add(new HotKey(key, hash, sketch.estimate(hash))));
+        keys.sort(Comparator.comparingLong(HotKey::count).reversed());
+        return keys.size() > limit ? keys.subList(0, limit) : keys;
+    }
+
+    /**
+     * Counts were halved: lower the bar with them
+     */
+    synchronized void decay() {
+        admissionThreshold >>= 1;
+        tracked.entrySet().removeIf(entry -> sketch.estimate(entry.getValue()) == 0);
+    }
+
+    int size() {
+        return tracked.size();
+    }
+}
@@ -10,7 +10,9 @@ import jakarta.persistence.Table;
 
 @Entity
 @Table(name = "entries", indexes = {
-    @Index(name = "idx_entry_key", columnList = "key")
+    @Index(name = "idx_entry_key", columnList = "key"),
+    @Index(name = "idx_entry_key_hash", columnList = "key_hash"),
+    @Index(name = "idx_entry_expires_at", columnList = "expires_at")
 })
 public class Entry {
     @Id
@@ -23,6 +25,19 @@ public class Entry {
     @Column(name = "value", nullable = false)
     private String value;
 
+    // Taken from the node-wide entry_versions sequence on every write, so it only grows for a key,
+    // even across delete and re-create; compare-and-set checks against it
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 1")
+    private Long version = 1L;
+
+    // Epoch millis after which the entry reads as absent and gets swept; null = no expiry
+    @Column(name = "expires_at")
+    private Long expiresAt;
+
+    // Ring position of the key, used for hash-range scans (nullable for rows written before it existed)
+    @Column(name = "key_hash")
+    private Long keyHash;
+
     public Long getId() {
         return id;
     }
@@ -41,4 +56,25 @@ public class Entry {
     public void setValue(String value) {
         this.value = value;
     }
+    public Long getVersion() {
+        return version;
+    }
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    public Long getExpiresAt() {
+        return expiresAt;
+    }
+    public void setExpiresAt(Long expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+    public boolean isExpired(long now) {
+        return expiresAt != null && expiresAt <= now;
+    }
+    public Long getKeyHash() {
+        return keyHash;
+    }
+    public void setKeyHash(Long keyHash) {
+        this.keyHash = keyHash;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package org.limedb.node.model;
+
+/**
+ * Result of a write as applied to the stored row: the value and expiry deadline the row held
+ * before (null if there was no row, even an expired one not yet swept), the value now stored
+ * (null for a delete) with its new version (0 for a delete), and the time the write was
+ * evaluated at, which decides whether the previous value had expired
+ */
+public record EntryChange(String previousValue, Long previousExpiresAt, String value, long version, long appliedAt) {
+
+    /**
+     * Check whether readers could still see the previous value when the write was applied
+     */
+    public boolean previousLive() {
+        return previousValue != null && (previousExpiresAt == null || previousExpiresAt > appliedAt);
+    }
+
+    /**
+     * Get the previous value as readers saw it: null if it was absent or had expired
+     */
+    public String livePreviousValue() {
+        return previousLive() ? previousValue : null;
+    }
+}
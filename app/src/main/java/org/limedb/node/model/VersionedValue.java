@@ -0,0 +1,4 @@
+package org.limedb.node.model;
+
+public record VersionedValue(String value, long version) {
+}
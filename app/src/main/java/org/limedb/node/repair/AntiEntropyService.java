@@ -0,0 +1,213 @@
+package org.limedb.node.repair;
+
+import org.limedb.node.dto.KeyValue;
+import org.limedb.node.dto.RepairHashesRequest;
+import org.limedb.node.model.Entry;
+import org.limedb.node.repository.NodeRepository;
+import org.limedb.node.routing.HashRange;
+import org.limedb.node.routing.RoutingService;
+import org.limedb.node.service.NodeService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background anti-entropy repair.
+ * Each pass walks the keys this node holds but does not own (left behind by a topology
+ * change, or written while the ring disagreed) and hands them to their owner: this node's
+ * tree for that owner is compared top-down with the owner's tree of its own keys, one tree
+ * level per round trip, and only entries under differing leaves are streamed. Subtrees whose hashes already match are
+ * known to be present on the owner and are simply dropped locally.
+ * Local copies are read when their subtree is compared and dropped only if they still
+ * hold the version that was read, so a write landing here during the pass is kept for
+ * the next one. The owner skips streamed keys it deleted recently (see DeletionLog).
+ */
+@Service
+public class AntiEntropyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AntiEntropyService.class);
+
+    private final MerkleTreeIndex treeIndex;
+    private final DeletionLog deletionLog;
+    private final NodeService nodeService;
+    private final NodeRepository repository;
+    private final RoutingService routingService;
+    private final RestTemplate restTemplate;
+    private final boolean enabled;
+
+    private final AtomicLong passes = new AtomicLong();
+    private final AtomicLong keysStreamed = new AtomicLong();
+    private final AtomicLong keysDropped = new AtomicLong();
+    private final AtomicLong keysSkippedDeleted = new AtomicLong();
+    private volatile long lastPassMillis = -1;
+
+    public AntiEntropyService(MerkleTreeIndex treeIndex, DeletionLog deletionLog, NodeService nodeService,
+                              NodeRepository repository, RoutingService routingService, RestTemplate restTemplate,
+                              @Value("${node.repair.enabled:true}") boolean enabled) {
+        this.treeIndex = treeIndex;
+        this.deletionLog = deletionLog;
+        this.nodeService = nodeService;
+        this.repository = repository;
+        this.routingService = routingService;
+        this.restTemplate = restTemplate;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Periodic repair pass, also rebuilds the trees after topology changes
+     */
+    @Scheduled(initialDelayString = "${node.repair.initial-delay-ms:30000}",
+               fixedDelayString = "${node.repair.interval-ms:60000}")
+    public void scheduledRepair() {
+        if (enabled) {
+            runRepair();
+        }
+    }
+
+    /**
+     * Run one repair pass over every owner this node holds misplaced keys for
+     */
+    public synchronized void runRepair() {
+        long startTime = System.currentTimeMillis();
+        if (treeIndex.isStale()) {
+            treeIndex.rebuild();
+        }
+
+        String currentNode = routingService.getCurrentNodeUrl();
+        for (Map.Entry<String, MerkleTree> entry : treeIndex.getTrees().entrySet()) {
+            String owner = entry.getKey();
+            if (owner.equals(currentNode) || entry.getValue().getRootHash() == 0) {
+                continue;
+            }
+            try {
+                repairTree(owner, entry.getValue());
+            } catch (RestClientException e) {
+                logger.warn("Repair of keys owned by {} failed: {}", owner, e.getMessage());
+            }
+        }
+
+        passes.incrementAndGet();
+        lastPassMillis = System.currentTimeMillis() - startTime;
+    }
+
+    /**
+     * Apply entries streamed by a peer: the owner's copy wins, only missing keys are written.
+     * Insert-if-absent is a single statement, so a client write racing with the ingest is never overwritten.
+     * Entries keep their expiry deadline; ones that expired in transit are skipped, and so are
+     * keys deleted here within the tombstone retention window.
+     */
+    public int ingest(List<KeyValue> entries) {
+        long now = System.currentTimeMillis();
+        int written = 0;
+        for (KeyValue entry : entries) {
+            if (entry.expiresAt() != null && entry.expiresAt() <= now) {
+                continue;
+            }
+            if (deletionLog.wasDeleted(entry.key(), now)) {
+                keysSkippedDeleted.incrementAndGet();
+                continue;
+            }
+            if (nodeService.insertIfAbsentLocal(entry.key(), entry.value(), entry.expiresAt()).isPresent()) {
+                written++;
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Get repair statistics for monitoring
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>(treeIndex.getStats());
+        stats.put("enabled", enabled);
+        stats.put("passes", passes.get());
+        stats.put("keysStreamed", keysStreamed.get());
+        stats.put("keysDropped", keysDropped.get());
+        stats.put("keysSkippedDeleted", keysSkippedDeleted.get());
+        stats.put("tombstones", deletionLog.size());
+        stats.put("lastPassMillis", lastPassMillis);
+        return stats;
+    }
+
+    private void repairTree(String owner, MerkleTree tree) {
+        List<InSyncSubtree> inSync = new ArrayList<>();
+        List<HashRange> differing = new ArrayList<>();
+
+        // Breadth-first descent, only expanding subtrees whose hashes differ
+        int[] frontier = {1};
+        while (frontier.length > 0) {
+            long[] local = tree.getHashes(frontier);
+            long[] remote = fetchHashes(owner, tree.getDepth(), frontier);
+
+            List<Integer> next = new ArrayList<>();
+            for (int i = 0; i < frontier.length; i++) {
+                int index = frontier[i];
+                if (local[i] == 0) {
+                    continue; // Nothing stored locally under this subtree
+                }
+                if (local[i] == remote[i]) {
+                    // Read the copies now: only what matched the owner's hash may be dropped
+                    inSync.add(new InSyncSubtree(index, local[i], ownedBy(owner, tree.subtreeRange(index))));
+                } else if (tree.isLeaf(index)) {
+                    differing.add(tree.leafRange(index));
+                } else {
+                    next.add(2 * index);
+                    next.add(2 * index + 1);
+                }
+            }
+            frontier = next.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        for (HashRange leaf : differing) {
+            List<Entry> entries = ownedBy(owner, leaf);
+            List<KeyValue> payload = entries.stream()
+                    .map(entry -> new KeyValue(entry.getKey(), entry.getValue(), entry.getExpiresAt()))
+                    .toList();
+            restTemplate.postForEntity(owner + "/api/v1/internal/repair/ingest", payload, String.class);
+            keysStreamed.addAndGet(payload.size());
+            drop(entries);
+        }
+        int skipped = 0;
+        for (InSyncSubtree subtree : inSync) {
+            // A local write since the comparison changed the hash; leave the subtree for the next pass
+            if (tree.getHashes(new int[] {subtree.index()})[0] != subtree.hash()) {
+                skipped++;
+                continue;
+            }
+            drop(subtree.entries());
+        }
+
+        logger.info("Repaired keys owned by {}: {} differing leaves streamed, {} subtrees already in sync ({} changed since)",
+                owner, differing.size(), inSync.size(), skipped);
+    }
+
+    // Local copies under a subtree that belong to the owner being repaired
+    private List<Entry> ownedBy(String owner, HashRange range) {
+        return repository.findByHashRange(range).stream()
+                .filter(entry -> owner.equals(routingService.getTargetNodeUrl(entry.getKey())))
+                .toList();
+    }
+
+    private long[] fetchHashes(String owner, int depth, int[] indices) {
+        RepairHashesRequest request = new RepairHashesRequest(owner, depth, indices);
+        return restTemplate.postForObject(owner + "/api/v1/internal/repair/hashes", request, long[].class);
+    }
+
+    // The owner now holds these keys, remove the misplaced local copies unless they were rewritten since being read
+    private void drop(List<Entry> entries) {
+        for (Entry entry : entries) {
+            if (nodeService.deleteIfVersionLocal(entry.getKey(), entry.getVersion())) {
+                keysDropped.incrementAndGet();
+            }
+        }
+    }
+
+    private record InSyncSubtree(int index, long hash, List<Entry> entries) {}
+}
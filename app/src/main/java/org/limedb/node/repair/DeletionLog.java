@@ -0,0 +1,77 @@
+package org.limedb.node.repair;
+
+import org.limedb.node.model.EntryChange;
+import org.limedb.node.routing.RoutingService;
+import org.limedb.node.service.EntryChangeListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Deletion markers for keys this node owns.
+ * A peer can still hold a stale copy of a key the owner has since deleted; without a
+ * marker the next repair pass would stream that copy back and resurrect the key.
+ * Markers are kept for a retention window that should span at least one repair
+ * interval, and the oldest are dropped first once the log is full.
+ */
+@Component
+public class DeletionLog implements EntryChangeListener {
+
+    private final RoutingService routingService;
+    private final long retentionMillis;
+    private final int capacity;
+
+    // Deletion time per key, oldest first
+    private final LinkedHashMap<String, Long> deletedAt = new LinkedHashMap<>();
+
+    public DeletionLog(RoutingService routingService,
+                       @Value("${node.repair.tombstone-retention-ms:300000}") long retentionMillis,
+                       @Value("${node.repair.tombstone-capacity:100000}") int capacity) {
+        this.routingService = routingService;
+        this.retentionMillis = retentionMillis;
+        this.capacity = capacity;
+    }
+
+    @Override
+    public void onEntryChanged(String key, EntryChange change) {
+        if (change.value() != null) {
+            synchronized (this) {
+                deletedAt.remove(key); // Written again, the marker no longer applies
+            }
+        } else if (routingService.shouldHandleLocally(key)) {
+            record(key, System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Check whether the key was deleted here within the retention window
+     */
+    public synchronized boolean wasDeleted(String key, long now) {
+        prune(now);
+        return deletedAt.containsKey(key);
+    }
+
+    public synchronized int size() {
+        return deletedAt.size();
+    }
+
+    synchronized void record(String key, long now) {
+        deletedAt.remove(key); // Re-insert so the map stays ordered by deletion time
+        deletedAt.put(key, now);
+        prune(now);
+    }
+
+    private void prune(long now) {
+        Iterator<Map.Entry<String, Long>> oldest = deletedAt.entrySet().iterator();
+        while (oldest.hasNext()) {
+            Map.Entry<String, Long> marker = oldest.next();
+            if (deletedAt.size() <= capacity && marker.getValue() + retentionMillis > now) {
+                break;
+            }
+            oldest.remove();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package org.limedb.node.repair;
+
+import org.limedb.node.routing.HashRange;
+
+/**
+ * Fixed-depth Merkle tree over one hash range of the ring.
+ * The range is split into 2^depth equally sized leaf buckets. A leaf is the XOR
+ * of the digests of the entries hashing into it, so writes update it incrementally
+ * without rescanning the bucket; parents are recomputed along the path to the root.
+ * Nodes are stored heap-style: root at index 1, children of i at 2i and 2i+1.
+ * An empty subtree always hashes to 0, which lets peers skip it cheaply.
+ */
+public class MerkleTree {
+
+    private final HashRange range;
+    private final int depth;
+    private final int leafCount;
+    private final long[] nodes;
+
+    public MerkleTree(HashRange range, int depth) {
+        this.range = range;
+        this.depth = depth;
+        this.leafCount = 1 << depth;
+        this.nodes = new long[2 * leafCount];
+    }
+
+    /**
+     * Apply a change to the tree: XOR the old entry digest out and the new one in.
+     * Pass 0 for a digest that does not exist (insert or delete).
+     */
+    public synchronized void update(long keyHash, long oldDigest, long newDigest) {
+        int index = leafCount + range.bucketOf(keyHash, leafCount);
+        nodes[index] ^= oldDigest ^ newDigest;
+
+        for (index >>= 1; index >= 1; index >>= 1) {
+            nodes[index] = combine(nodes[2 * index], nodes[2 * index + 1]);
+        }
+    }
+
+    /**
+     * Get the hashes of the given heap indices
+     */
+    public synchronized long[] getHashes(int[] indices) {
+        long[] hashes = new long[indices.length];
+        for (int i = 0; i < indices.length; i++) {
+            int index = indices[i];
+            if (index < 1 || index >= nodes.length) {
+                throw new IllegalArgumentException("Node index out of range: " + index);
+            }
+            hashes[i] = nodes[index];
+        }
+        return hashes;
+    }
+
+    public synchronized long getRootHash() {
+        return nodes[1];
+    }
+
+    /**
+     * Get the hash sub-range covered by a leaf given its heap index
+     */
+    public HashRange leafRange(int index) {
+        return range.bucket(index - leafCount, leafCount);
+    }
+
+    /**
+     * Get the hash sub-range covered by the subtree rooted at a heap index
+     */
+    public HashRange subtreeRange(int index) {
+        int level = 31 - Integer.numberOfLeadingZeros(index);
+        int shift = depth - level;
+        int firstLeaf = (index << shift) - leafCount;
+        int lastLeaf = ((index + 1) << shift) - 1 - leafCount;
+        return new HashRange(range.bucket(firstLeaf, leafCount).start(), range.bucket(lastLeaf, leafCount).end());
+    }
+
+    public boolean isLeaf(int index) {
+        return index >= leafCount;
+    }
+
+    public HashRange getRange() {
+        return range;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Digest of a single key-value pair
+     */
+    public static long digest(long keyHash, long valueHash) {
+        return mix(keyHash * 31 + valueHash);
+    }
+
+    private static long combine(long left, long right) {
+        if (left == 0 && right == 0) {
+            return 0;
+        }
+        return mix(Long.rotateLeft(left, 17) ^ right);
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,171 @@
+package org.limedb.node.repair;
+
+import org.limedb.node.model.Entry;
+import org.limedb.node.model.EntryChange;
+import org.limedb.node.repository.NodeRepository;
+import org.limedb.node.routing.HashRange;
+import org.limedb.node.routing.KeyHasher;
+import org.limedb.node.routing.RoutingService;
+import org.limedb.node.service.EntryChangeListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps one Merkle tree per owner node for the data stored on this node, updated
+ * incrementally on every local write. The tree for a node spans the whole hash space but
+ * only holds the keys the routing strategy assigns to that node, so the index stays at one
+ * tree per node whatever the strategy's range layout: Maglev spreads every node over tens
+ * of thousands of slot runs, jump and rendezvous report no ranges at all.
+ * Trees are allocated lazily, so owners this node holds no data for cost nothing.
+ * The whole index is rebuilt from a repository scan whenever the ring topology changes;
+ * writes that race with a rebuild may leave a tree slightly off, which only makes the
+ * next repair pass compare a few more buckets.
+ */
+@Component
+public class MerkleTreeIndex implements EntryChangeListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(MerkleTreeIndex.class);
+    private static final int SCAN_BATCH_SIZE = 1000;
+    private static final HashRange RING = new HashRange(Long.MIN_VALUE, Long.MAX_VALUE);
+
+    private final RoutingService routingService;
+    private final NodeRepository repository;
+    private final int depth;
+
+    // Trees keyed by the owner node of the keys they hold; null until the first build
+    private volatile Map<String, MerkleTree> trees;
+    private volatile long builtForTopology = -1;
+
+    public MerkleTreeIndex(RoutingService routingService, NodeRepository repository,
+                           @Value("${node.repair.merkle-depth:10}") int depth) {
+        this.routingService = routingService;
+        this.repository = repository;
+        this.depth = depth;
+    }
+
+    @Override
+    public void onEntryChanged(String key, EntryChange change) {
+        Map<String, MerkleTree> current = trees;
+        if (current == null) {
+            return; // Not built yet, the initial scan will pick this write up
+        }
+
+        String owner = routingService.getTargetNodeUrl(key);
+        if (owner == null) {
+            return;
+        }
+        long keyHash = KeyHasher.hash(key);
+        current.computeIfAbsent(owner, node -> new MerkleTree(RING, depth))
+                .update(keyHash, digest(keyHash, change.previousValue()), digest(keyHash, change.value()));
+    }
+
+    @Override
+    public void onBulkLoad() {
+        // Bulk loads carry no previous values, so the trees can only be rebuilt from a scan
+        builtForTopology = -1;
+    }
+
+    /**
+     * Check whether the ring changed since the trees were last built (or a bulk load invalidated them)
+     */
+    public boolean isStale() {
+        return builtForTopology != routingService.getTopologyVersion();
+    }
+
+    /**
+     * Rebuild all trees from a full repository scan, grouped by the current owner of each key
+     */
+    public synchronized void rebuild() {
+        long topology = routingService.getTopologyVersion();
+
+        int backfilled = repository.backfillKeyHashes(SCAN_BATCH_SIZE);
+        if (backfilled > 0) {
+            logger.info("Backfilled key hashes for {} entries", backfilled);
+        }
+
+        Map<String, MerkleTree> newTrees = new ConcurrentHashMap<>();
+        long scanned = 0;
+        long lastId = 0;
+        List<Entry> batch;
+        do {
+            batch = repository.scan(lastId, SCAN_BATCH_SIZE);
+            for (Entry entry : batch) {
+                lastId = entry.getId();
+                String owner = routingService.getTargetNodeUrl(entry.getKey());
+                if (owner == null) {
+                    continue;
+                }
+                long keyHash = entry.getKeyHash() != null ? entry.getKeyHash() : KeyHasher.hash(entry.getKey());
+                newTrees.computeIfAbsent(owner, node -> new MerkleTree(RING, depth))
+                        .update(keyHash, 0, digest(keyHash, entry.getValue()));
+            }
+            scanned += batch.size();
+        } while (batch.size() == SCAN_BATCH_SIZE);
+
+        this.trees = newTrees;
+        this.builtForTopology = topology;
+        logger.info("Merkle trees rebuilt: {} entries across {} owners (depth {})", scanned, newTrees.size(), depth);
+    }
+
+    /**
+     * Get the owners this node holds data for, each with the tree of that data
+     */
+    public Map<String, MerkleTree> getTrees() {
+        Map<String, MerkleTree> current = trees;
+        return current == null ? Map.of() : Collections.unmodifiableMap(current);
+    }
+
+    /**
+     * Get node hashes of the tree for keys this node owns, on behalf of a peer comparing
+     * its own tree for this node against ours
+     */
+    public long[] getHashes(String owner, int peerDepth, int[] indices) {
+        if (peerDepth != depth) {
+            throw new IllegalArgumentException("Merkle depth mismatch: local " + depth + ", peer " + peerDepth);
+        }
+        if (!routingService.getCurrentNodeUrl().equals(owner)) {
+            throw new IllegalStateException("Hashes requested for " + owner + " from " + routingService.getCurrentNodeUrl());
+        }
+        Map<String, MerkleTree> current = trees;
+        if (current == null) {
+            throw new IllegalStateException("Merkle trees are not built yet");
+        }
+
+        MerkleTree tree = current.get(owner);
+        if (tree == null) {
+            // No local data owned here: every node hash is 0
+            for (int index : indices) {
+                if (index < 1 || index >= 2 << depth) {
+                    throw new IllegalArgumentException("Node index out of range: " + index);
+                }
+            }
+            return new long[indices.length];
+        }
+        return tree.getHashes(indices);
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Get index statistics for monitoring
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("depth", depth);
+        stats.put("populatedTrees", getTrees().size());
+        stats.put("topologyVersion", builtForTopology);
+        stats.put("stale", isStale());
+        return stats;
+    }
+
+    private static long digest(long keyHash, String value) {
+        return value == null ? 0 : MerkleTree.digest(keyHash, KeyHasher.hash(value));
+    }
+}
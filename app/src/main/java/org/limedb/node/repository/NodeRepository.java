@@ -1,10 +1,101 @@
 package org.limedb.node.repository;
 
+import org.limedb.node.dto.KeyValue;
+import org.limedb.node.model.Entry;
+import org.limedb.node.model.EntryChange;
+import org.limedb.node.model.VersionedValue;
+import org.limedb.node.routing.HashRange;
+
 import java.util.List;
 import java.util.Optional;
 
 public interface NodeRepository {
     Optional<String> get(String key);
-    void set(String key, String value);
-    boolean delete(String key);
-}
\ No newline at end of file
+
+    /**
+     * Store a value with the given expiry deadline (epoch millis, null for none).
+     * Like every write here, the change reports the row it replaced as stored, even if it had expired.
+     */
+    EntryChange set(String key, String value, Long expiresAtMillis);
+
+    /**
+     * Delete a key and return the row it removed, if any (possibly expired)
+     */
+    Optional<EntryChange> delete(String key);
+
+    /**
+     * Set an expiry deadline (epoch millis) on a live key; returns false if the key does not exist
+     */
+    boolean expire(String key, long expiresAtMillis);
+
+    /**
+     * Get keys whose expiry deadline has passed
+     */
+    List<String> findExpiredKeys(long now, int limit);
+
+    /**
+     * Delete a key only if it is still expired, returning the row it removed
+     */
+    Optional<EntryChange> deleteIfExpired(String key, long now);
+
+    /**
+     * Delete a key only if it still holds the given version, returning the row it removed
+     */
+    Optional<EntryChange> deleteIfVersion(String key, long version);
+
+    /**
+     * Get a value together with its version
+     */
+    Optional<VersionedValue> getVersioned(String key);
+
+    /**
+     * Atomically add delta to an integer value, creating the key with value delta if absent.
+     * An expired key counts as absent: it restarts from delta and loses its expiry.
+     * Throws IllegalArgumentException if the stored value is not an integer.
+     */
+    EntryChange increment(String key, long delta);
+
+    /**
+     * Atomically replace the value if the stored version matches (0 = key must be absent).
+     * Returns empty if the version did not match.
+     */
+    Optional<EntryChange> compareAndSet(String key, long expectedVersion, String value);
+
+    /**
+     * Atomically store a value with the given expiry deadline (epoch millis, null for none) only if the key is absent.
+     * Returns empty if the key already holds a live value.
+     */
+    Optional<EntryChange> insertIfAbsent(String key, String value, Long expiresAtMillis);
+
+    /**
+     * Atomically store a value and return what it replaced
+     */
+    EntryChange getAndSet(String key, String value);
+
+    /**
+     * Get all live (unexpired) entries whose key hash falls inside the range
+     */
+    List<Entry> findByHashRange(HashRange range);
+
+    /**
+     * Page through the live entries of a non-wrapping hash range in (keyHash, id) order, starting after the given position
+     */
+    List<Entry> scanHashRange(HashRange range, long afterHash, long afterId, int limit);
+
+    /**
+     * Insert or overwrite a batch of entries, with their expiry, through the storage engine's bulk path.
+     * If a key appears more than once, the last occurrence in the list wins.
+     * Does not report previous values; callers must treat derived state as stale.
+     */
+    void bulkLoad(List<KeyValue> entries);
+
+    /**
+     * Page through all entries in id order, starting after the given id
+     */
+    List<Entry> scan(long afterId, int limit);
+
+    /**
+     * Fill in key hashes for rows written before the column existed
+     */
+    int backfillKeyHashes(int batchSize);
+}
@@ -1,9 +1,29 @@
 package org.limedb.node.repository.jpa;
 
 import org.limedb.node.model.Entry;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
 import java.util.Optional;
 
 public interface NodeJpaRepository extends JpaRepository<Entry, Long> {
     Optional<Entry> findByKey(String key);
-}
\ No newline at end of file
+
+    @Query("select e from Entry e where e.keyHash between :start and :end " +
+           "and (e.expiresAt is null or e.expiresAt > :now)")
+    List<Entry> findLiveByKeyHashBetween(@Param("start") Long start, @Param("end") Long end,
+                                         @Param("now") Long now);
+
+    @Query("select e from Entry e where e.keyHash between :start and :end " +
+           "and (e.keyHash > :afterHash or (e.keyHash = :afterHash and e.id > :afterId)) " +
+           "and (e.expiresAt is null or e.expiresAt > :now) " +
+           "order by e.keyHash, e.id")
+    List<Entry> findLiveHashRangePage(@Param("start") Long start, @Param("end") Long end,
+                                      @Param("afterHash") Long afterHash, @Param("afterId") Long afterId,
+                                      @Param("now") Long now, Limit limit);
+
+    List<Entry> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+}
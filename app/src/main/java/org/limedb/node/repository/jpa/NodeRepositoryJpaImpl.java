@@ -1,50 +1,348 @@
 package org.limedb.node.repository.jpa;
 
+import jakarta.annotation.PostConstruct;
+import org.limedb.node.dto.KeyValue;
 import org.limedb.node.model.Entry;
+import org.limedb.node.model.EntryChange;
+import org.limedb.node.model.VersionedValue;
 import org.limedb.node.repository.NodeRepository;
+import org.limedb.node.routing.HashRange;
+import org.limedb.node.routing.KeyHasher;
+import org.postgresql.PGConnection;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
 
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public class NodeRepositoryJpaImpl implements NodeRepository {
 
+    // Versions come from one node-wide sequence rather than a per-row counter, so a key that is
+    // deleted and re-created never reuses a version a stale compare-and-set could still hold
+    private static final String NEXT_VERSION = "nextval('entry_versions')";
+
+    // Rows past their expiry read as absent until the sweeper removes them; the placeholder takes the current time
+    private static final String LIVE = "(expires_at IS NULL OR expires_at > ?)";
+    private static final String OLD_LIVE = "(old.expires_at IS NULL OR old.expires_at > ?)";
+
+    // Writes are single statements: the sub-select locks the row and exposes what it held,
+    // so no read-modify-write round trip is needed. Every write returns the row as stored,
+    // expired or not, so derived state (Merkle trees, change feed) sees the same rows a scan
+    // does; callers decide from its expiry whether readers could still see it.
+    // Only an existing row can be locked, so writes that may create the key go through upsert()
+    private static final String LOCK_ROW =
+            "(SELECT id, \"value\", expires_at FROM entries WHERE \"key\" = ? FOR UPDATE) old";
+    private static final String RETURNING_CHANGE =
+            " RETURNING old.\"value\", old.expires_at, e.\"value\", e.version";
+    private static final String SET_SQL =
+            "UPDATE entries e SET \"value\" = ?, key_hash = ?, version = " + NEXT_VERSION + ", expires_at = CAST(? AS bigint) " +
+            "FROM " + LOCK_ROW + " WHERE e.id = old.id" + RETURNING_CHANGE;
+    // An expired value counts as absent: the counter restarts from 0 and loses its expiry
+    private static final String INCREMENT_SQL =
+            "UPDATE entries e SET \"value\" = (CASE WHEN " + OLD_LIVE + " THEN CAST(old.\"value\" AS bigint) ELSE 0 END + ?)::text, " +
+            "version = " + NEXT_VERSION + ", expires_at = CASE WHEN " + OLD_LIVE + " THEN old.expires_at END " +
+            "FROM " + LOCK_ROW + " WHERE e.id = old.id" + RETURNING_CHANGE;
+    private static final String COMPARE_AND_SET_SQL =
+            "UPDATE entries e SET \"value\" = ?, version = " + NEXT_VERSION + " " +
+            "FROM (SELECT id, \"value\", expires_at FROM entries WHERE \"key\" = ? AND version = ? AND " + LIVE + " FOR UPDATE) old " +
+            "WHERE e.id = old.id" + RETURNING_CHANGE;
+    private static final String GET_AND_SET_SQL =
+            "UPDATE entries e SET \"value\" = ?, version = " + NEXT_VERSION + ", expires_at = NULL " +
+            "FROM " + LOCK_ROW + " WHERE e.id = old.id" + RETURNING_CHANGE;
+    private static final String REPLACE_EXPIRED_SQL =
+            "UPDATE entries e SET \"value\" = ?, key_hash = ?, version = " + NEXT_VERSION + ", expires_at = CAST(? AS bigint) " +
+            "FROM (SELECT id, \"value\", expires_at FROM entries WHERE \"key\" = ? AND expires_at <= ? FOR UPDATE) old " +
+            "WHERE e.id = old.id" + RETURNING_CHANGE;
+    private static final String INSERT_SQL =
+            "INSERT INTO entries (\"key\", \"value\", key_hash, version, expires_at) " +
+            "VALUES (?, ?, ?, " + NEXT_VERSION + ", CAST(? AS bigint)) ON CONFLICT (\"key\") DO NOTHING " +
+            "RETURNING NULL, CAST(NULL AS bigint), \"value\", version";
+    private static final String IS_LIVE_SQL =
+            "SELECT count(*) FROM entries WHERE \"key\" = ? AND " + LIVE;
+    private static final String DELETE_SQL =
+            "DELETE FROM entries WHERE \"key\" = ? RETURNING \"value\", expires_at";
+
+    private static final String EXPIRE_SQL =
+            "UPDATE entries SET expires_at = ? WHERE \"key\" = ? AND (expires_at IS NULL OR expires_at > ?)";
+    private static final String FIND_EXPIRED_SQL =
+            "SELECT \"key\" FROM entries WHERE expires_at <= ? ORDER BY expires_at LIMIT ?";
+    private static final String DELETE_IF_EXPIRED_SQL =
+            "DELETE FROM entries WHERE \"key\" = ? AND expires_at <= ? RETURNING \"value\", expires_at";
+    private static final String DELETE_IF_VERSION_SQL =
+            "DELETE FROM entries WHERE \"key\" = ? AND version = ? RETURNING \"value\", expires_at";
+    private static final String FIND_UNHASHED_SQL =
+            "SELECT \"key\" FROM entries WHERE key_hash IS NULL LIMIT ?";
+    private static final String BACKFILL_KEY_HASH_SQL =
+            "UPDATE entries SET key_hash = ? WHERE \"key\" = ? AND key_hash IS NULL";
+
+
     private final NodeJpaRepository jpaRepository;
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
 
-    public NodeRepositoryJpaImpl(NodeJpaRepository jpaRepository) {
+    public NodeRepositoryJpaImpl(NodeJpaRepository jpaRepository, DataSource dataSource, JdbcTemplate jdbcTemplate) {
         this.jpaRepository = jpaRepository;
+        this.dataSource = dataSource;
+        this.jdbcTemplate = jdbcTemplate;
     }
 
     @Override
     public Optional<String> get(String key) {
-        Optional<Entry> entry = jpaRepository.findByKey(key);
+        Optional<Entry> entry = findLive(key);
         return entry.map(Entry::getValue);
     }
 
+    /**
+     * Create the version sequence and move it past versions written before it existed
+     */
+    @PostConstruct
+    void initializeVersionSequence() {
+        jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS entry_versions");
+        jdbcTemplate.queryForObject("SELECT setval('entry_versions', GREATEST(" +
+                "(SELECT COALESCE(MAX(version), 1) FROM entries), (SELECT last_value FROM entry_versions)))", Long.class);
+    }
+
+    @Override
+    public EntryChange set(String key, String value, Long expiresAtMillis) {
+        long now = System.currentTimeMillis();
+        return upsert(SET_SQL, key, value, expiresAtMillis, now, value, KeyHasher.hash(key), expiresAtMillis, key);
+    }
+
+    @Override
+    public Optional<EntryChange> delete(String key) {
+        long now = System.currentTimeMillis();
+        return first(jdbcTemplate.query(DELETE_SQL, deletionMapper(now), key));
+    }
+
+    @Override
+    public boolean expire(String key, long expiresAtMillis) {
+        return jdbcTemplate.update(EXPIRE_SQL, expiresAtMillis, key, System.currentTimeMillis()) > 0;
+    }
+
+    @Override
+    public List<String> findExpiredKeys(long now, int limit) {
+        return jdbcTemplate.queryForList(FIND_EXPIRED_SQL, String.class, now, limit);
+    }
+
+    @Override
+    public Optional<EntryChange> deleteIfExpired(String key, long now) {
+        return first(jdbcTemplate.query(DELETE_IF_EXPIRED_SQL, deletionMapper(now), key, now));
+    }
+
+    @Override
+    public Optional<EntryChange> deleteIfVersion(String key, long version) {
+        long now = System.currentTimeMillis();
+        return first(jdbcTemplate.query(DELETE_IF_VERSION_SQL, deletionMapper(now), key, version));
+    }
+
+    @Override
+    public Optional<VersionedValue> getVersioned(String key) {
+        return findLive(key).map(entry -> new VersionedValue(entry.getValue(), entry.getVersion()));
+    }
+
+    // Expired rows read as absent until the sweeper removes them
+    private Optional<Entry> findLive(String key) {
+        return jpaRepository.findByKey(key).filter(entry -> !entry.isExpired(System.currentTimeMillis()));
+    }
+
+    @Override
+    public EntryChange increment(String key, long delta) {
+        try {
+            long now = System.currentTimeMillis();
+            return upsert(INCREMENT_SQL, key, String.valueOf(delta), null, now, now, delta, now, key);
+        } catch (DataAccessException e) {
+            Throwable cause = NestedExceptionUtils.getMostSpecificCause(e);
+            // Class 22 = data exception: the value is not an integer or the result overflows bigint
+            if (cause instanceof SQLException sql && sql.getSQLState() != null && sql.getSQLState().startsWith("22")) {
+                throw new IllegalArgumentException("Value of '" + key + "' is not an integer in the 64-bit range");
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public Optional<EntryChange> compareAndSet(String key, long expectedVersion, String value) {
+        if (expectedVersion == 0) {
+            return insertIfAbsent(key, value, null);
+        }
+        long now = System.currentTimeMillis();
+        return first(jdbcTemplate.query(COMPARE_AND_SET_SQL, changeMapper(now), value, key, expectedVersion, now));
+    }
+
+    /**
+     * Insert, or take over an expired row; a live row makes it fail.
+     * If the row changes between the steps (deleted, or expired while we looked), start over.
+     */
+    @Override
+    public Optional<EntryChange> insertIfAbsent(String key, String value, Long expiresAtMillis) {
+        while (true) {
+            long now = System.currentTimeMillis();
+            Optional<EntryChange> inserted = first(jdbcTemplate.query(INSERT_SQL, changeMapper(now),
+                    key, value, KeyHasher.hash(key), expiresAtMillis));
+            if (inserted.isPresent()) {
+                return inserted;
+            }
+            Optional<EntryChange> replaced = first(jdbcTemplate.query(REPLACE_EXPIRED_SQL, changeMapper(now),
+                    value, KeyHasher.hash(key), expiresAtMillis, key, now));
+            if (replaced.isPresent()) {
+                return replaced;
+            }
+            Long live = jdbcTemplate.queryForObject(IS_LIVE_SQL, Long.class, key, now);
+            if (live != null && live > 0) {
+                return Optional.empty();
+            }
+        }
+    }
+
+    @Override
+    public EntryChange getAndSet(String key, String value) {
+        long now = System.currentTimeMillis();
+        return upsert(GET_AND_SET_SQL, key, value, null, now, value, key);
+    }
+
+    /**
+     * Run an update-returning statement; if the key is absent insert it instead.
+     * Two first writers can both miss on the update; the insert of the one that loses the race
+     * is a no-op, so it retries the update and sees the winner's value as the one it replaced.
+     */
+    private EntryChange upsert(String updateSql, String key, String initialValue, Long initialExpiresAt, long now,
+                               Object... updateArgs) {
+        while (true) {
+            Optional<EntryChange> updated = first(jdbcTemplate.query(updateSql, changeMapper(now), updateArgs));
+            if (updated.isPresent()) {
+                return updated.get();
+            }
+            Optional<EntryChange> inserted = first(jdbcTemplate.query(
+                    INSERT_SQL, changeMapper(now), key, initialValue, KeyHasher.hash(key), initialExpiresAt));
+            if (inserted.isPresent()) {
+                return inserted.get();
+            }
+        }
+    }
+
+    // Rows of a write returning the previous value and expiry, then the new value and version
+    private static RowMapper<EntryChange> changeMapper(long now) {
+        return (rs, rowNum) -> new EntryChange(rs.getString(1), rs.getObject(2, Long.class),
+                rs.getString(3), rs.getLong(4), now);
+    }
+
+    // Rows of a delete returning the value and expiry it removed
+    private static RowMapper<EntryChange> deletionMapper(long now) {
+        return (rs, rowNum) -> new EntryChange(rs.getString(1), rs.getObject(2, Long.class), null, 0, now);
+    }
+
+    private static <T> Optional<T> first(List<T> rows) {
+        return rows.isEmpty() ? Optional.empty() : Optional.of(rows.get(0));
+    }
+
     @Override
-    public void set(String key, String value) {
-        Optional<Entry> existingEntry = jpaRepository.findByKey(key);
-        if (existingEntry.isPresent()) {
-            // Update existing
-            Entry entry = existingEntry.get();
-            entry.setValue(value);
-            jpaRepository.save(entry);
-        } else {
-            // Create new
-            Entry entry = new Entry();
-            entry.setKey(key);
-            entry.setValue(value);
-            jpaRepository.save(entry);
+    public List<Entry> findByHashRange(HashRange range) {
+        // Wrapping range is split at the Long.MAX_VALUE / Long.MIN_VALUE boundary
+        long now = System.currentTimeMillis();
+        List<Entry> entries = new ArrayList<>();
+        for (HashRange segment : range.segments()) {
+            entries.addAll(jpaRepository.findLiveByKeyHashBetween(segment.start(), segment.end(), now));
         }
+        return entries;
     }
 
     @Override
-    public boolean delete(String key) {
-        Optional<Entry> entry = jpaRepository.findByKey(key);
-        if (entry.isPresent()) {
-            jpaRepository.delete(entry.get());
-            return true;
+    public List<Entry> scanHashRange(HashRange range, long afterHash, long afterId, int limit) {
+        if (range.wraps()) {
+            throw new IllegalArgumentException("Range scan requires a non-wrapping range: " + range);
         }
-        return false;
+        return jpaRepository.findLiveHashRangePage(range.start(), range.end(), afterHash, afterId,
+                System.currentTimeMillis(), Limit.of(limit));
+    }
+
+    /**
+     * Streams the batch into a temp table with COPY and merges it with a single upsert,
+     * avoiding a round trip and an ORM entity per row.
+     */
+    @Override
+    public void bulkLoad(List<KeyValue> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        StringBuilder csv = new StringBuilder(entries.size() * 64);
+        for (int i = 0; i < entries.size(); i++) {
+            KeyValue entry = entries.get(i);
+            csv.append(i).append(',');
+            appendCsvField(csv, entry.key()).append(',');
+            appendCsvField(csv, entry.value()).append(',');
+            csv.append(KeyHasher.hash(entry.key())).append(',');
+            // An unquoted empty field is NULL in CSV format: no expiry
+            csv.append(entry.expiresAt() != null ? entry.expiresAt().toString() : "").append('\n');
+        }
+
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TEMP TABLE IF NOT EXISTS entries_import " +
+                    "(ordinal bigint, \"key\" text, \"value\" text, key_hash bigint, expires_at bigint)");
+            statement.execute("TRUNCATE entries_import");
+
+            connection.unwrap(PGConnection.class).getCopyAPI().copyIn(
+                    "COPY entries_import (ordinal, \"key\", \"value\", key_hash, expires_at) FROM STDIN WITH (FORMAT csv)",
+                    new StringReader(csv.toString()));
+
+            // DISTINCT ON keeps a single row per key so the upsert never touches a row twice;
+            // ordering by position within the key makes the last record in the batch win
+            statement.executeUpdate("INSERT INTO entries (\"key\", \"value\", key_hash, version, expires_at) " +
+                    "SELECT \"key\", \"value\", key_hash, " + NEXT_VERSION + ", expires_at FROM " +
+                    "(SELECT DISTINCT ON (\"key\") \"key\", \"value\", key_hash, expires_at FROM entries_import " +
+                    "ORDER BY \"key\", ordinal DESC) batch " +
+                    "ON CONFLICT (\"key\") DO UPDATE SET \"value\" = EXCLUDED.\"value\", key_hash = EXCLUDED.key_hash, " +
+                    "version = EXCLUDED.version, expires_at = EXCLUDED.expires_at");
+        } catch (SQLException | IOException e) {
+            throw new RuntimeException("Bulk load of " + entries.size() + " entries failed", e);
+        }
+    }
+
+    @Override
+    public List<Entry> scan(long afterId, int limit) {
+        return jpaRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(limit));
+    }
+
+    /**
+     * Hashes are computed here but written with a conditional batch update, so a row
+     * rewritten concurrently (which sets its own hash) is never overwritten
+     */
+    @Override
+    public int backfillKeyHashes(int batchSize) {
+        int updated = 0;
+        List<String> keys;
+        do {
+            keys = jdbcTemplate.queryForList(FIND_UNHASHED_SQL, String.class, batchSize);
+            if (keys.isEmpty()) {
+                break;
+            }
+            int[][] counts = jdbcTemplate.batchUpdate(BACKFILL_KEY_HASH_SQL, keys, keys.size(), (ps, key) -> {
+                ps.setLong(1, KeyHasher.hash(key));
+                ps.setString(2, key);
+            });
+            for (int[] batch : counts) {
+                for (int count : batch) {
+                    updated += Math.max(count, 0);
+                }
+            }
+        } while (keys.size() == batchSize);
+        return updated;
+    }
+
+    private static StringBuilder appendCsvField(StringBuilder csv, String field) {
+        return csv.append('"').append(field.replace("\"", "\"\"")).append('"');
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,201 @@
+package org.limedb.node.resp;
+
+import org.limedb.node.dto.EntryResponse;
+import org.limedb.node.service.NodeService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Executes RESP commands against NodeService, so they get the same routing and
+ * forwarding as the HTTP API. Runs on worker threads, never on the event loop,
+ * because a command may block on a forwarded request.
+ */
+@Component
+public class RespCommandHandler {
+
+    private final NodeService service;
+
+    public RespCommandHandler(NodeService service) {
+        this.service = service;
+    }
+
+    /**
+     * Execute one command and append its reply.
+     * Returns false if the connection should be closed after the reply is written.
+     */
+    boolean execute(List<String> command, RespReply reply) {
+        String name = command.get(0).toUpperCase(Locale.ROOT);
+        try {
+            switch (name) {
+                case "GET" -> {
+                    if (arity(command, 2, 2, reply)) {
+                        reply.bulk(get(command.get(1)));
+                    }
+                }
+                case "SET" -> {
+                    if (arity(command, 3, 5, reply)) {
+                        set(command, reply);
+                    }
+                }
+                case "DEL" -> {
+                    if (arity(command, 2, Integer.MAX_VALUE, reply)) {
+                        long deleted = 0;
+                        for (String key : command.subList(1, command.size())) {
+                            deleted += Long.parseLong(body(service.handleDelete(key)));
+                        }
+                        reply.integer(deleted);
+                    }
+                }
+                case "MGET" -> {
+                    if (arity(command, 2, Integer.MAX_VALUE, reply)) {
+                        // Fetch every value before replying, so a failure leaves a single error, not a partial array
+                        List<String> values = new ArrayList<>(command.size() - 1);
+                        for (String key : command.subList(1, command.size())) {
+                            values.add(get(key));
+                        }
+                        reply.arrayHeader(values.size());
+                        for (String value : values) {
+                            reply.bulk(value);
+                        }
+                    }
+                }
+                case "MSET" -> {
+                    if (arity(command, 3, Integer.MAX_VALUE, reply) && pairs(command, reply)) {
+                        for (int i = 1; i < command.size(); i += 2) {
+                            body(service.handleSet(command.get(i), command.get(i + 1)));
+                        }
+                        reply.simple("OK");
+                    }
+                }
+                case "EXPIRE" -> {
+                    if (arity(command, 3, 3, reply)) {
+                        reply.integer(Long.parseLong(body(service.handleExpire(command.get(1), Long.parseLong(command.get(2))))));
+                    }
+                }
+                case "INCR", "DECR" -> {
+                    if (arity(command, 2, 2, reply)) {
+                        increment(command.get(1), name.equals("INCR") ? 1 : -1, reply);
+                    }
+                }
+                case "INCRBY", "DECRBY" -> {
+                    if (arity(command, 3, 3, reply)) {
+                        long delta = Long.parseLong(command.get(2));
+                        increment(command.get(1), name.equals("INCRBY") ? delta : Math.negateExact(delta), reply);
+                    }
+                }
+                case "GETSET" -> {
+                    if (arity(command, 3, 3, reply)) {
+                        ResponseEntity<EntryResponse> response = service.handleGetAndSet(command.get(1), command.get(2));
+                        reply.bulk(entry(response).previousValue());
+                    }
+                }
+                case "PING" -> {
+                    if (command.size() > 1) {
+                        reply.bulk(command.get(1));
+                    } else {
+                        reply.simple("PONG");
+                    }
+                }
+                case "ECHO" -> {
+                    if (arity(command, 2, 2, reply)) {
+                        reply.bulk(command.get(1));
+                    }
+                }
+                case "SELECT" -> reply.simple("OK");
+                // Probed by client libraries and redis-benchmark on connect; nothing to report
+                case "COMMAND", "CONFIG" -> reply.arrayHeader(0);
+                case "CLIENT" -> reply.simple("OK");
+                case "QUIT" -> {
+                    reply.simple("OK");
+                    return false;
+                }
+                default -> reply.error("ERR unknown command '" + command.get(0) + "'");
+            }
+        } catch (IllegalArgumentException | ArithmeticException e) {
+            // Unparsable or unrepresentable numeric argument, or INCR on a non-integer value at the owner
+            reply.error("ERR value is not an integer or out of range");
+        } catch (Exception e) {
+            reply.error("ERR " + e.getMessage());
+        }
+        return true;
+    }
+
+    private String get(String key) {
+        ResponseEntity<String> response = service.handleGet(key);
+        if (response.getStatusCode() == HttpStatus.NOT_FOUND) {
+            return null;
+        }
+        return body(response);
+    }
+
+    // SET key value [EX seconds | PX milliseconds]
+    private void set(List<String> command, RespReply reply) {
+        long ttlMillis = 0;
+        if (command.size() == 5) {
+            String option = command.get(3).toUpperCase(Locale.ROOT);
+            long amount = Long.parseLong(command.get(4));
+            if (amount <= 0) {
+                reply.error("ERR invalid expire time in 'set' command");
+                return;
+            }
+            switch (option) {
+                case "EX" -> ttlMillis = Math.multiplyExact(amount, 1000L);
+                case "PX" -> ttlMillis = amount;
+                default -> {
+                    reply.error("ERR syntax error");
+                    return;
+                }
+            }
+        } else if (command.size() != 3) {
+            reply.error("ERR syntax error");
+            return;
+        }
+
+        body(service.handleSet(command.get(1), command.get(2), ttlMillis));
+        reply.simple("OK");
+    }
+
+    private void increment(String key, long delta, RespReply reply) {
+        ResponseEntity<EntryResponse> response = service.handleIncrement(key, delta);
+        if (response.getStatusCode() == HttpStatus.BAD_REQUEST) {
+            reply.error("ERR value is not an integer or out of range");
+            return;
+        }
+        reply.integer(Long.parseLong(entry(response).value()));
+    }
+
+    private static boolean arity(List<String> command, int min, int max, RespReply reply) {
+        if (command.size() < min || command.size() > max) {
+            reply.error("ERR wrong number of arguments for '" + command.get(0).toLowerCase(Locale.ROOT) + "' command");
+            return false;
+        }
+        return true;
+    }
+
+    private static boolean pairs(List<String> command, RespReply reply) {
+        if (command.size() % 2 == 0) {
+            reply.error("ERR wrong number of arguments for '" + command.get(0).toLowerCase(Locale.ROOT) + "' command");
+            return false;
+        }
+        return true;
+    }
+
+    private static String body(ResponseEntity<String> response) {
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            throw new IllegalStateException("owner responded " + response.getStatusCode().value());
+        }
+        return response.getBody();
+    }
+
+    private static EntryResponse entry(ResponseEntity<EntryResponse> response) {
+        if (!response.getStatusCode().is2xxSuccessful() || response.getBody() == null) {
+            throw new IllegalStateException("owner responded " + response.getStatusCode().value());
+        }
+        return response.getBody();
+    }
+}
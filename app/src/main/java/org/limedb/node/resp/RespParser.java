@@ -0,0 +1,173 @@
+package org.limedb.node.resp;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Incremental RESP request parser for one connection.
+ * Accepts multi-bulk requests (what client libraries send) and inline commands
+ * (what telnet and redis-cli without a tty send). Bytes are appended as they arrive;
+ * next() returns complete commands one by one, so a pipelined read yields many commands.
+ */
+class RespParser {
+
+    private static final int INITIAL_BUFFER_SIZE = 16 * 1024;
+    private static final int MAX_BULK_LENGTH = 512 * 1024 * 1024;
+    private static final int MAX_ARGUMENTS = 1024 * 1024;
+    // A declared count is only a claim until the arguments arrive, so reserve at most this many up front
+    private static final int MAX_PREALLOCATED_ARGUMENTS = 1024;
+
+    private byte[] buffer = new byte[INITIAL_BUFFER_SIZE];
+    private int start;
+    private int end;
+
+    // Multi-bulk request in progress, kept across calls so consumed arguments are never parsed twice
+    private List<String> arguments;
+    private int remainingArguments;
+    private int bulkLength = -1;
+
+    void append(ByteBuffer source) {
+        int length = source.remaining();
+        if (end + length > buffer.length) {
+            // Reclaim consumed bytes first, grow only if that is not enough
+            int unread = end - start;
+            byte[] target = unread + length > buffer.length
+                    ? new byte[Math.max(buffer.length * 2, unread + length)]
+                    : buffer;
+            System.arraycopy(buffer, start, target, 0, unread);
+            buffer = target;
+            start = 0;
+            end = unread;
+        }
+        source.get(buffer, end, length);
+        end += length;
+    }
+
+    /**
+     * Parse the next complete command, or return null if more bytes are needed
+     */
+    List<String> next() {
+        while (arguments != null || start < end) {
+            List<String> command = arguments != null || buffer[start] == '*' ? parseMultiBulk() : parseInline();
+            if (command == null) {
+                return null;
+            }
+            if (!command.isEmpty()) {
+                return command;
+            }
+            // Empty array or blank line: skip it and keep going
+        }
+        start = 0;
+        end = 0;
+        if (buffer.length > INITIAL_BUFFER_SIZE) {
+            // Everything is consumed: give back what a burst of large requests made the buffer grow to
+            buffer = new byte[INITIAL_BUFFER_SIZE];
+        }
+        return null;
+    }
+
+    int capacity() {
+        return buffer.length;
+    }
+
+    private List<String> parseMultiBulk() {
+        if (arguments == null) {
+            int lineEnd = findCrlf(start);
+            if (lineEnd < 0) {
+                return null;
+            }
+            int count = Math.max(parseLength(start + 1, lineEnd, MAX_ARGUMENTS), 0);
+            start = lineEnd + 2;
+            arguments = new ArrayList<>(Math.min(count, MAX_PREALLOCATED_ARGUMENTS));
+            remainingArguments = count;
+        }
+
+        while (remainingArguments > 0) {
+            if (bulkLength < 0) {
+                if (start >= end) {
+                    return null;
+                }
+                if (buffer[start] != '$') {
+                    throw new RespProtocolException("expected '$', got '" + (char) buffer[start] + "'");
+                }
+                int lineEnd = findCrlf(start);
+                if (lineEnd < 0) {
+                    return null;
+                }
+                int length = parseLength(start + 1, lineEnd, MAX_BULK_LENGTH);
+                if (length < 0) {
+                    throw new RespProtocolException("invalid bulk length");
+                }
+                bulkLength = length;
+                start = lineEnd + 2;
+            }
+            if ((long) start + bulkLength + 2 > end) {
+                return null;
+            }
+            arguments.add(new String(buffer, start, bulkLength, StandardCharsets.UTF_8));
+            start += bulkLength + 2;
+            bulkLength = -1;
+            remainingArguments--;
+        }
+
+        List<String> command = arguments;
+        arguments = null;
+        return command;
+    }
+
+    private List<String> parseInline() {
+        int lineEnd = -1;
+        for (int i = start; i < end; i++) {
+            if (buffer[i] == '\n') {
+                lineEnd = i;
+                break;
+            }
+        }
+        if (lineEnd < 0) {
+            if (end - start > 64 * 1024) {
+                throw new RespProtocolException("too big inline request");
+            }
+            return null;
+        }
+
+        String line = new String(buffer, start, lineEnd - start, StandardCharsets.UTF_8).trim();
+        start = lineEnd + 1;
+        List<String> arguments = new ArrayList<>();
+        for (String part : line.split("\\s+")) {
+            if (!part.isEmpty()) {
+                arguments.add(part);
+            }
+        }
+        return arguments;
+    }
+
+    private int findCrlf(int from) {
+        for (int i = from; i < end - 1; i++) {
+            if (buffer[i] == '\r' && buffer[i + 1] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int parseLength(int from, int to, int max) {
+        if (from == to) {
+            throw new RespProtocolException("missing length");
+        }
+        long value = 0;
+        boolean negative = buffer[from] == '-';
+        for (int i = negative ? from + 1 : from; i < to; i++) {
+            int digit = buffer[i] - '0';
+            if (digit < 0 || digit > 9) {
+                throw new RespProtocolException("invalid length");
+            }
+            value = value * 10 + digit;
+            if (value > max) {
+                throw new RespProtocolException("length out of range");
+            }
+        }
+        return negative ? -1 : (int) value;
+    }
+}
@@ -0,0 +1,10 @@
+package org.limedb.node.resp;
+
+/**
+ * Malformed client input; the connection is answered with an error and closed
+ */
+class RespProtocolException extends RuntimeException {
+    RespProtocolException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,59 @@
+package org.limedb.node.resp;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Accumulates encoded RESP replies for a batch of pipelined commands
+ */
+class RespReply {
+
+    private static final byte[] CRLF = {'\r', '\n'};
+    private static final byte[] NULL_BULK = "$-1\r\n".getBytes(StandardCharsets.US_ASCII);
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+
+    RespReply simple(String message) {
+        return line('+', message);
+    }
+
+    RespReply error(String message) {
+        // Simple strings cannot span lines
+        return line('-', message.replace('\r', ' ').replace('\n', ' '));
+    }
+
+    RespReply integer(long value) {
+        return line(':', Long.toString(value));
+    }
+
+    RespReply bulk(String value) {
+        if (value == null) {
+            out.writeBytes(NULL_BULK);
+            return this;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        line('$', Integer.toString(bytes.length));
+        out.writeBytes(bytes);
+        out.writeBytes(CRLF);
+        return this;
+    }
+
+    RespReply arrayHeader(int size) {
+        return line('*', Integer.toString(size));
+    }
+
+    int size() {
+        return out.size();
+    }
+
+    byte[] toByteArray() {
+        return out.toByteArray();
+    }
+
+    private RespReply line(char type, String content) {
+        out.write(type);
+        out.writeBytes(content.getBytes(StandardCharsets.UTF_8));
+        out.writeBytes(CRLF);
+        return this;
+    }
+}
@@ -0,0 +1,345 @@
+package org.limedb.node.resp;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Redis-protocol (RESP) listener next to the HTTP API.
+ * A single NIO event loop accepts connections, reads and parses requests and writes
+ * replies. Parsed commands are executed on virtual threads, one batch per connection
+ * at a time, so pipelined commands keep their order and share a single write; the
+ * event loop itself never blocks on storage or on forwarding to a peer.
+ * A client that does not read its replies is paused, both reading and executing,
+ * once its unwritten output reaches a limit, and resumes as the socket drains.
+ */
+@Component
+public class RespServer implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(RespServer.class);
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    // Stop reading from a client that has this many parsed commands waiting to execute
+    private static final int MAX_PENDING_COMMANDS = 10_000;
+    // Stop reading from and executing for a client that has this many reply bytes not yet written
+    static final long MAX_OUTPUT_BYTES = 16 * 1024 * 1024;
+    // Hand replies to the event loop at least this often during a long pipeline
+    private static final int FLUSH_EVERY_COMMANDS = 1024;
+
+    private final RespCommandHandler handler;
+    private final boolean enabled;
+    private final int port;
+
+    private final Queue<Connection> readyConnections = new ConcurrentLinkedQueue<>();
+    private ExecutorService workers;
+    private Selector selector;
+    private ServerSocketChannel serverChannel;
+    private Thread eventLoop;
+    private volatile boolean running;
+
+    public RespServer(RespCommandHandler handler,
+                      @Value("${node.resp.enabled:false}") boolean enabled,
+                      @Value("${node.resp.port:6379}") int port) {
+        this.handler = handler;
+        this.enabled = enabled;
+        this.port = port;
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            selector = Selector.open();
+            serverChannel = ServerSocketChannel.open();
+            serverChannel.configureBlocking(false);
+            serverChannel.bind(new InetSocketAddress(port), 1024);
+            serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to start RESP listener on port " + port, e);
+        }
+
+        workers = Executors.newVirtualThreadPerTaskExecutor();
+        running = true;
+        eventLoop = new Thread(this::runEventLoop, "resp-event-loop");
+        eventLoop.start();
+        logger.info("RESP listener started on port {}", port);
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        selector.wakeup();
+        try {
+            eventLoop.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        workers.shutdown();
+        logger.info("RESP listener stopped");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void runEventLoop() {
+        ByteBuffer readBuffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+        try {
+            while (running) {
+                selector.select();
+
+                Connection ready;
+                while ((ready = readyConnections.poll()) != null) {
+                    afterExecution(ready);
+                }
+
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    try {
+                        if (!key.isValid()) {
+                            continue;
+                        }
+                        if (key.isAcceptable()) {
+                            accept();
+                        } else {
+                            Connection connection = (Connection) key.attachment();
+                            if (key.isReadable()) {
+                                read(connection, readBuffer);
+                            }
+                            if (key.isValid() && key.isWritable()) {
+                                write(connection);
+                                resume(connection);
+                            }
+                        }
+                    } catch (IOException | CancelledKeyException e) {
+                        if (key.attachment() instanceof Connection connection) {
+                            close(connection);
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            logger.error("RESP event loop failed", e);
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                try {
+                    key.channel().close();
+                } catch (IOException ignored) {
+                    // Shutting down
+                }
+            }
+            try {
+                selector.close();
+            } catch (IOException ignored) {
+                // Shutting down
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = serverChannel.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            Connection connection = new Connection(channel);
+            connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+        }
+    }
+
+    private void read(Connection connection, ByteBuffer readBuffer) throws IOException {
+        readBuffer.clear();
+        int read = connection.channel.read(readBuffer);
+        if (read < 0) {
+            close(connection);
+            return;
+        }
+        readBuffer.flip();
+        connection.parser.append(readBuffer);
+
+        boolean submit;
+        synchronized (connection) {
+            try {
+                List<String> command;
+                while ((command = connection.parser.next()) != null) {
+                    connection.pending.add(command);
+                }
+            } catch (RespProtocolException e) {
+                // Answer after the commands already queued, then drop the client
+                connection.protocolError = "ERR Protocol error: " + e.getMessage();
+                connection.key.interestOps(connection.key.interestOps() & ~SelectionKey.OP_READ);
+            }
+            if (connection.pending.size() >= MAX_PENDING_COMMANDS || connection.outputFull()) {
+                connection.key.interestOps(connection.key.interestOps() & ~SelectionKey.OP_READ);
+            }
+            submit = !connection.executing && !connection.outputFull()
+                    && (!connection.pending.isEmpty() || connection.protocolError != null);
+            connection.executing |= submit;
+        }
+        if (submit) {
+            workers.execute(() -> execute(connection));
+        }
+    }
+
+    /**
+     * Worker side: run everything queued for the connection, in order, into one reply buffer
+     */
+    private void execute(Connection connection) {
+        RespReply reply = new RespReply();
+        int executed = 0;
+        while (true) {
+            List<String> command;
+            synchronized (connection) {
+                if (connection.outputBytes + reply.size() >= MAX_OUTPUT_BYTES) {
+                    // The client is not keeping up with its replies: stop until the event loop has drained them
+                    connection.enqueue(reply);
+                    connection.executing = false;
+                    break;
+                }
+                command = connection.pending.poll();
+                if (command == null) {
+                    // Publish and release the connection together so a later batch cannot overtake these replies
+                    if (connection.protocolError != null) {
+                        reply.error(connection.protocolError);
+                        connection.closeAfterWrite = true;
+                    }
+                    connection.enqueue(reply);
+                    connection.executing = false;
+                    break;
+                }
+            }
+            if (!handler.execute(command, reply)) {
+                synchronized (connection) {
+                    connection.pending.clear();
+                    connection.closeAfterWrite = true;
+                    connection.enqueue(reply);
+                    connection.executing = false;
+                }
+                break;
+            }
+            if (++executed % FLUSH_EVERY_COMMANDS == 0) {
+                synchronized (connection) {
+                    connection.enqueue(reply);
+                }
+                reply = new RespReply();
+                signal(connection);
+            }
+        }
+        signal(connection);
+    }
+
+    private void signal(Connection connection) {
+        readyConnections.add(connection);
+        selector.wakeup();
+    }
+
+    /**
+     * Event loop side: flush replies produced by a worker, then resume whatever was paused
+     */
+    private void afterExecution(Connection connection) {
+        if (!connection.key.isValid()) {
+            return;
+        }
+        try {
+            write(connection);
+            resume(connection);
+        } catch (IOException | CancelledKeyException e) {
+            close(connection);
+        }
+    }
+
+    /**
+     * Event loop side: once the output is below the limit, restart execution of queued
+     * commands and reading of new ones if either was paused
+     */
+    private void resume(Connection connection) {
+        boolean submit;
+        synchronized (connection) {
+            if (!connection.key.isValid() || connection.closeAfterWrite || connection.outputFull()) {
+                return;
+            }
+            if (connection.protocolError == null && connection.pending.size() < MAX_PENDING_COMMANDS) {
+                connection.key.interestOps(connection.key.interestOps() | SelectionKey.OP_READ);
+            }
+            submit = !connection.executing && (!connection.pending.isEmpty() || connection.protocolError != null);
+            connection.executing |= submit;
+        }
+        if (submit) {
+            workers.execute(() -> execute(connection));
+        }
+    }
+
+    private void write(Connection connection) throws IOException {
+        synchronized (connection) {
+            ByteBuffer buffer;
+            while ((buffer = connection.output.peek()) != null) {
+                connection.outputBytes -= connection.channel.write(buffer);
+                if (buffer.hasRemaining()) {
+                    // Socket buffer is full, continue when it becomes writable
+                    connection.key.interestOps(connection.key.interestOps() | SelectionKey.OP_WRITE);
+                    return;
+                }
+                connection.output.poll();
+            }
+            connection.key.interestOps(connection.key.interestOps() & ~SelectionKey.OP_WRITE);
+            if (connection.closeAfterWrite) {
+                close(connection);
+            }
+        }
+    }
+
+    private void close(Connection connection) {
+        connection.key.cancel();
+        try {
+            connection.channel.close();
+        } catch (IOException ignored) {
+            // Already gone
+        }
+    }
+
+    private static final class Connection {
+        final SocketChannel channel;
+        final RespParser parser = new RespParser();
+        // Guarded by the connection's monitor
+        final Deque<List<String>> pending = new ArrayDeque<>();
+        final Deque<ByteBuffer> output = new ArrayDeque<>();
+        boolean executing;
+        long outputBytes;
+        boolean closeAfterWrite;
+        String protocolError;
+        SelectionKey key;
+
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        // Callers hold the connection's monitor
+        void enqueue(RespReply reply) {
+            byte[] bytes = reply.toByteArray();
+            output.add(ByteBuffer.wrap(bytes));
+            outputBytes += bytes.length;
+        }
+
+        boolean outputFull() {
+            return outputBytes >= MAX_OUTPUT_BYTES;
+        }
+    }
+}
@@ -1,8 +1,5 @@
 package org.limedb.node.routing;
 
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.util.*;
 import java.util.concurrent.ConcurrentSkipListMap;
 
@@ -10,24 +7,28 @@ import java.util.concurrent.ConcurrentSkipListMap;
  * Thread-safe consistent hash ring implementation for distributed key-value
  * storage.
  * Uses virtual nodes to ensure better load distribution across physical nodes.
+ * A node's weight scales its number of virtual nodes, so larger machines own a
+ * proportionally larger share of the ring.
  */
-public class ConsistentHashRing {
+public class ConsistentHashRing implements RoutingStrategy {
+
+    public static final String NAME = "consistent-hash";
 
     private final ConcurrentSkipListMap<Long, String> ring;
     private final int virtualNodesPerNode;
-    private final MessageDigest md5;
     private final Set<String> nodes;
+    private final Map<String, Double> weights;
 
     public ConsistentHashRing(int virtualNodesPerNode) {
         this.ring = new ConcurrentSkipListMap<>();
         this.virtualNodesPerNode = virtualNodesPerNode;
         this.nodes = new HashSet<>();
+        this.weights = new HashMap<>();
+    }
 
-        try {
-            this.md5 = MessageDigest.getInstance("MD5");
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException("MD5 algorithm not available", e);
-        }
+    @Override
+    public String getName() {
+        return NAME;
     }
 
     /**
@@ -38,14 +39,33 @@ public class ConsistentHashRing {
             return; // Node already exists
         }
 
+        addNode(nodeUrl, 1.0);
+    }
+
+    /**
+     * Add a node or change its weight.
+     * Virtual node i always hashes "nodeUrl:i", so a weight change only adds or removes
+     * the highest-numbered virtual nodes and keys move only to or from this node.
+     */
+    @Override
+    public synchronized void addNode(String nodeUrl, double weight) {
+        RoutingStrategy.checkWeight(weight);
+        RoutingStrategy.checkRepresentable(weight, effectiveWeight(weight), virtualNodesPerNode + " virtual nodes per node");
+        int current = nodes.contains(nodeUrl) ? virtualNodesFor(weights.get(nodeUrl)) : 0;
+        int target = virtualNodesFor(weight);
+
         nodes.add(nodeUrl);
+        weights.put(nodeUrl, weight);
 
         // Add virtual nodes for better distribution
-        for (int i = 0; i < virtualNodesPerNode; i++) {
+        for (int i = current; i < target; i++) {
             String virtualNodeKey = nodeUrl + ":" + i;
             long hash = hash(virtualNodeKey);
             ring.put(hash, nodeUrl);
         }
+        for (int i = target; i < current; i++) {
+            ring.remove(hash(nodeUrl + ":" + i));
+        }
     }
 
     /**
@@ -57,9 +77,10 @@ public class ConsistentHashRing {
         }
 
         nodes.remove(nodeUrl);
+        int virtualNodes = virtualNodesFor(weights.remove(nodeUrl));
 
         // Remove all virtual nodes for this physical node
-        for (int i = 0; i < virtualNodesPerNode; i++) {
+        for (int i = 0; i < virtualNodes; i++) {
             String virtualNodeKey = nodeUrl + ":" + i;
             long hash = hash(virtualNodeKey);
             ring.remove(hash);
@@ -103,14 +124,16 @@ public class ConsistentHashRing {
     }
 
     /**
-     * Initialize the ring with a list of node URLs
+     * Initialize the ring with a list of node URLs and their weights
      */
-    public synchronized void initializeRing(List<String> nodeUrls) {
+    @Override
+    public synchronized void initializeRing(List<String> nodeUrls, Map<String, Double> nodeWeights) {
         ring.clear();
         nodes.clear();
+        weights.clear();
 
         for (String nodeUrl : nodeUrls) {
-            addNode(nodeUrl);
+            addNode(nodeUrl, nodeWeights.getOrDefault(nodeUrl, 1.0));
         }
     }
 
@@ -129,6 +152,22 @@ public class ConsistentHashRing {
             distribution.put(node, distribution.getOrDefault(node, 0) + 1);
         }
         stats.put("virtualNodeDistribution", distribution);
+        stats.put("weights", new HashMap<>(weights));
+        Map<String, Double> effective = new HashMap<>();
+        weights.forEach((node, weight) -> effective.put(node, effectiveWeight(weight)));
+        stats.put("effectiveWeights", effective);
+        stats.put("strategy", NAME);
+
+        // Share of the hash space per node: each virtual node owns the arc back to its predecessor
+        Map<String, Double> ownership = new HashMap<>();
+        Long previous = ring.isEmpty() ? null : ring.lastKey();
+        for (Map.Entry<Long, String> entry : ring.entrySet()) {
+            long arc = entry.getKey() - previous;
+            double fraction = arc == 0 ? 1.0 : OwnershipStats.unsigned(arc) / OwnershipStats.HASH_SPACE;
+            ownership.merge(entry.getValue(), fraction, Double::sum);
+            previous = entry.getKey();
+        }
+        OwnershipStats.put(stats, ownership, effective);
 
         return stats;
     }
@@ -173,6 +212,7 @@ public class ConsistentHashRing {
             range.put("end", rangeEnd);
             range.put("hash", currentHash);
             range.put("size", rangeEnd - rangeStart + 1);
+            range.put("percent", OwnershipStats.percentOfSpace(rangeEnd - rangeStart + 1));
             
             nodeRanges.get(currentNode).add(range);
         }
@@ -246,20 +286,22 @@ public class ConsistentHashRing {
         return nodeRanges;
     }
 
+    @Override
+    public double effectiveWeight(double weight) {
+        return (double) virtualNodesFor(weight) / virtualNodesPerNode;
+    }
+
+    /**
+     * Number of virtual nodes for a weight (at least one, so every node stays on the ring)
+     */
+    private int virtualNodesFor(double weight) {
+        return Math.max(1, (int) Math.round(virtualNodesPerNode * weight));
+    }
+
     /**
      * Hash function using MD5
      */
     private long hash(String input) {
-        md5.reset();
-        md5.update(input.getBytes(StandardCharsets.UTF_8));
-        byte[] digest = md5.digest();
-
-        // Convert first 8 bytes to long for hash value
-        long hash = 0;
-        for (int i = 0; i < 8; i++) {
-            hash = (hash << 8) | (digest[i] & 0xFF);
-        }
-
-        return hash;
+        return KeyHasher.hash(input);
     }
 }
\ No newline at end of file
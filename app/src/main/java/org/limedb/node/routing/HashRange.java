@@ -0,0 +1,57 @@
+package org.limedb.node.routing;
+
+import java.util.List;
+
+/**
+ * Inclusive range of ring positions [start, end].
+ * A range with start > end wraps around from Long.MAX_VALUE to Long.MIN_VALUE,
+ * matching the first range reported by {@link ConsistentHashRing#getNodeRanges()}.
+ */
+public record HashRange(long start, long end) {
+
+    /**
+     * Check whether a hash falls inside this range (wraparound aware)
+     */
+    public boolean contains(long hash) {
+        return Long.compareUnsigned(hash - start, end - start) <= 0;
+    }
+
+    /**
+     * Whether the range crosses the Long.MAX_VALUE / Long.MIN_VALUE boundary
+     */
+    public boolean wraps() {
+        return start > end;
+    }
+
+    /**
+     * Get the range as one or two non-wrapping segments, in ring order
+     */
+    public List<HashRange> segments() {
+        if (!wraps()) {
+            return List.of(this);
+        }
+        return List.of(new HashRange(start, Long.MAX_VALUE), new HashRange(Long.MIN_VALUE, end));
+    }
+
+    /**
+     * Split this range into equally sized buckets and return the bucket containing the hash
+     */
+    public int bucketOf(long hash, int buckets) {
+        return (int) Long.divideUnsigned(hash - start, bucketWidth(buckets));
+    }
+
+    /**
+     * Get the sub-range covered by a single bucket
+     */
+    public HashRange bucket(int index, int buckets) {
+        long width = bucketWidth(buckets);
+        long bucketStart = start + index * width;
+        long bucketEnd = index == buckets - 1 ? end : bucketStart + width - 1;
+        return new HashRange(bucketStart, bucketEnd);
+    }
+
+    private long bucketWidth(int buckets) {
+        // end - start is the span minus one, which never overflows unsigned
+        return Long.divideUnsigned(end - start, buckets) + 1;
+    }
+}
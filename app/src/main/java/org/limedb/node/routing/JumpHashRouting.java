@@ -0,0 +1,186 @@
+package org.limedb.node.routing;
+
+import java.util.*;
+
+/**
+ * Jump consistent hash (Lamping and Veach) over an ordered list of buckets.
+ * Needs no ring at all: memory is one slot per bucket and the lookup is O(ln n)
+ * arithmetic with perfect balance. A node gets a whole number of buckets per unit of
+ * weight; weights that rounding would change by more than WEIGHT_TOLERANCE are rejected.
+ * Jump hash can only grow or shrink at the end, so a bucket released from the middle
+ * stays in place as a hole: keys landing on a hole are rehashed until they reach a live
+ * bucket, and a joining node fills the lowest hole before new buckets are appended.
+ * Keys of the other buckets never change owner, so a membership or weight change only
+ * moves keys to or from the affected node.
+ * Ownership is not contiguous in hash space, so no ranges are reported.
+ */
+public class JumpHashRouting implements RoutingStrategy {
+
+    public static final String NAME = "jump";
+
+    private final int bucketsPerWeight;
+    // Bucket owners in bucket order; null marks a released bucket
+    private final List<String> buckets = new ArrayList<>();
+    private final Map<String, Double> weights = new HashMap<>();
+    private int liveBuckets;
+
+    public JumpHashRouting() {
+        this(1);
+    }
+
+    public JumpHashRouting(int bucketsPerWeight) {
+        if (bucketsPerWeight < 1) {
+            throw new IllegalArgumentException("Buckets per weight must be positive: " + bucketsPerWeight);
+        }
+        this.bucketsPerWeight = bucketsPerWeight;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public synchronized void addNode(String nodeUrl) {
+        if (!weights.containsKey(nodeUrl)) {
+            addNode(nodeUrl, 1.0);
+        }
+    }
+
+    /**
+     * Grow by filling holes (or appending), shrink by releasing the node's last buckets
+     */
+    @Override
+    public synchronized void addNode(String nodeUrl, double weight) {
+        RoutingStrategy.checkWeight(weight);
+        RoutingStrategy.checkRepresentable(weight, effectiveWeight(weight), bucketsPerWeight + " buckets per unit of weight");
+        int target = bucketsFor(weight);
+        int current = Collections.frequency(buckets, nodeUrl);
+        for (int i = current; i < target; i++) {
+            claimBucket(nodeUrl);
+        }
+        for (int i = target; i < current; i++) {
+            releaseBucket(buckets.lastIndexOf(nodeUrl));
+        }
+        weights.put(nodeUrl, weight);
+    }
+
+    @Override
+    public synchronized void removeNode(String nodeUrl) {
+        int index;
+        while ((index = buckets.lastIndexOf(nodeUrl)) >= 0) {
+            releaseBucket(index);
+        }
+        weights.remove(nodeUrl);
+    }
+
+    @Override
+    public synchronized String getNode(String key) {
+        if (liveBuckets == 0) {
+            return null;
+        }
+        long hash = KeyHasher.hash(key);
+        String owner = buckets.get(jump(hash, buckets.size()));
+        for (long attempt = 1; owner == null; attempt++) {
+            owner = buckets.get(jump(rehash(hash, attempt), buckets.size()));
+        }
+        return owner;
+    }
+
+    @Override
+    public synchronized Set<String> getNodes() {
+        return new HashSet<>(weights.keySet());
+    }
+
+    @Override
+    public synchronized int getNodeCount() {
+        return weights.size();
+    }
+
+    @Override
+    public synchronized void initializeRing(List<String> nodeUrls, Map<String, Double> nodeWeights) {
+        buckets.clear();
+        weights.clear();
+        liveBuckets = 0;
+        for (String nodeUrl : nodeUrls) {
+            addNode(nodeUrl, nodeWeights.getOrDefault(nodeUrl, 1.0));
+        }
+    }
+
+    @Override
+    public double effectiveWeight(double weight) {
+        return (double) bucketsFor(weight) / bucketsPerWeight;
+    }
+
+    @Override
+    public synchronized Map<String, Object> getRingStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("strategy", NAME);
+        stats.put("totalNodes", getNodeCount());
+        stats.put("bucketsPerWeight", bucketsPerWeight);
+        stats.put("bucketOrder", new ArrayList<>(buckets));
+        stats.put("releasedBuckets", buckets.size() - liveBuckets);
+        stats.put("weights", new HashMap<>(weights));
+
+        // Jump hash splits the key space evenly across live buckets (holes rehash uniformly)
+        Map<String, Double> ownership = new HashMap<>();
+        Map<String, Double> effective = new HashMap<>();
+        for (String node : buckets) {
+            if (node != null) {
+                ownership.merge(node, 1.0 / liveBuckets, Double::sum);
+                effective.merge(node, 1.0 / bucketsPerWeight, Double::sum);
+            }
+        }
+        stats.put("effectiveWeights", effective);
+        OwnershipStats.put(stats, ownership, effective);
+        return stats;
+    }
+
+    @Override
+    public Map<String, List<Map<String, Object>>> getNodeRanges() {
+        return new HashMap<>();
+    }
+
+    // Whole buckets for a weight, at least one so every node keeps some keys
+    private int bucketsFor(double weight) {
+        return (int) Math.max(1, Math.round(weight * bucketsPerWeight));
+    }
+
+    private void claimBucket(String nodeUrl) {
+        int hole = buckets.indexOf(null);
+        if (hole >= 0) {
+            buckets.set(hole, nodeUrl);
+        } else {
+            buckets.add(nodeUrl);
+        }
+        liveBuckets++;
+    }
+
+    // Leave a hole rather than moving the last bucket into the slot, which would move its keys too
+    private void releaseBucket(int index) {
+        buckets.set(index, null);
+        liveBuckets--;
+    }
+
+    // Independent hash for the next probe after landing on a hole (SplitMix64 finalizer)
+    private static long rehash(long hash, long attempt) {
+        long z = hash + attempt * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Jump consistent hash: maps a 64-bit key to a bucket in [0, buckets)
+     */
+    static int jump(long key, int buckets) {
+        long b = -1;
+        long j = 0;
+        while (j < buckets) {
+            b = j;
+            key = key * 2862933555777941757L + 1;
+            j = (long) ((b + 1) * ((double) (1L << 31) / (double) ((key >>> 33) + 1)));
+        }
+        return (int) b;
+    }
+}
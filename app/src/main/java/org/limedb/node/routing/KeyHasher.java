@@ -0,0 +1,41 @@
+package org.limedb.node.routing;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * MD5-based 64-bit hash shared by the hash ring and everything that needs to
+ * place a key on it (repair trees, range scans).
+ * MessageDigest is not thread-safe, so each thread gets its own instance.
+ */
+public final class KeyHasher {
+
+    private static final ThreadLocal<MessageDigest> MD5 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("MD5 algorithm not available", e);
+        }
+    });
+
+    private KeyHasher() {
+    }
+
+    /**
+     * Hash a string to a position on the ring
+     */
+    public static long hash(String input) {
+        MessageDigest md5 = MD5.get();
+        md5.reset();
+        byte[] digest = md5.digest(input.getBytes(StandardCharsets.UTF_8));
+
+        // Convert first 8 bytes to long for hash value
+        long hash = 0;
+        for (int i = 0; i < 8; i++) {
+            hash = (hash << 8) | (digest[i] & 0xFF);
+        }
+
+        return hash;
+    }
+}
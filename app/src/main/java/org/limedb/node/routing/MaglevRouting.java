@@ -0,0 +1,213 @@
+package org.limedb.node.routing;
+
+import java.math.BigInteger;
+import java.util.*;
+
+/**
+ * Maglev consistent hashing (Eisenbud et al.): a prime-sized lookup table filled by
+ * letting each node claim slots in turn along its own permutation, which gives
+ * near-perfect balance and an O(1) array lookup. The slot is taken from the high bits
+ * of the key hash, so every slot is a contiguous hash range and ranges can be reported
+ * like the ring's. Membership changes rebuild the table; only a small fraction of slots
+ * change owner beyond those of the affected node. Weighted nodes take proportionally
+ * more turns while the table is being filled.
+ */
+public class MaglevRouting implements RoutingStrategy {
+
+    public static final String NAME = "maglev";
+
+    private final int tableSize;
+    // Sorted so every node fills the table in the same order
+    private final SortedMap<String, Double> nodes = new TreeMap<>();
+    private volatile String[] table = new String[0];
+
+    public MaglevRouting(int tableSize) {
+        if (!BigInteger.valueOf(tableSize).isProbablePrime(30)) {
+            throw new IllegalArgumentException("Maglev table size must be prime: " + tableSize);
+        }
+        this.tableSize = tableSize;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public synchronized void addNode(String nodeUrl) {
+        if (!nodes.containsKey(nodeUrl)) {
+            addNode(nodeUrl, 1.0);
+        }
+    }
+
+    @Override
+    public synchronized void addNode(String nodeUrl, double weight) {
+        RoutingStrategy.checkWeight(weight);
+        nodes.put(nodeUrl, weight);
+        rebuild();
+    }
+
+    @Override
+    public synchronized void removeNode(String nodeUrl) {
+        if (nodes.remove(nodeUrl) != null) {
+            rebuild();
+        }
+    }
+
+    @Override
+    public String getNode(String key) {
+        String[] current = table;
+        if (current.length == 0) {
+            return null;
+        }
+        return current[slotOf(KeyHasher.hash(key))];
+    }
+
+    @Override
+    public synchronized Set<String> getNodes() {
+        return new HashSet<>(nodes.keySet());
+    }
+
+    @Override
+    public synchronized int getNodeCount() {
+        return nodes.size();
+    }
+
+    @Override
+    public synchronized void initializeRing(List<String> nodeUrls, Map<String, Double> weights) {
+        nodes.clear();
+        for (String nodeUrl : nodeUrls) {
+            RoutingStrategy.checkWeight(weights.getOrDefault(nodeUrl, 1.0));
+            nodes.put(nodeUrl, weights.getOrDefault(nodeUrl, 1.0));
+        }
+        rebuild();
+    }
+
+    @Override
+    public synchronized Map<String, Object> getRingStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("strategy", NAME);
+        stats.put("totalNodes", nodes.size());
+        stats.put("tableSize", tableSize);
+        stats.put("weights", new HashMap<>(nodes));
+
+        Map<String, Integer> slots = new HashMap<>();
+        for (String node : table) {
+            slots.merge(node, 1, Integer::sum);
+        }
+        stats.put("slotDistribution", slots);
+
+        Map<String, Double> ownership = new HashMap<>();
+        slots.forEach((node, count) -> ownership.put(node, (double) count / tableSize));
+        OwnershipStats.put(stats, ownership, nodes);
+        return stats;
+    }
+
+    /**
+     * Consecutive slots with the same owner are merged into one range
+     */
+    @Override
+    public synchronized Map<String, List<Map<String, Object>>> getNodeRanges() {
+        Map<String, List<Map<String, Object>>> nodeRanges = new HashMap<>();
+        String[] current = table;
+        if (current.length == 0) {
+            return nodeRanges;
+        }
+        for (String node : nodes.keySet()) {
+            nodeRanges.put(node, new ArrayList<>());
+        }
+
+        int runStart = 0;
+        for (int slot = 1; slot <= current.length; slot++) {
+            if (slot == current.length || !current[slot].equals(current[runStart])) {
+                long start = slotStart(runStart);
+                long end = slotStart(slot) - 1;
+
+                Map<String, Object> range = new HashMap<>();
+                range.put("start", start);
+                range.put("end", end);
+                range.put("hash", end);
+                range.put("size", end - start + 1);
+                range.put("percent", OwnershipStats.percentOfSpace(end - start + 1));
+                nodeRanges.get(current[runStart]).add(range);
+                runStart = slot;
+            }
+        }
+        return nodeRanges;
+    }
+
+    @Override
+    public int getRangeCount() {
+        String[] current = table;
+        int runs = 0;
+        for (int slot = 0; slot < current.length; slot++) {
+            if (slot == 0 || !current[slot].equals(current[slot - 1])) {
+                runs++;
+            }
+        }
+        return runs;
+    }
+
+    private void rebuild() {
+        if (nodes.isEmpty()) {
+            table = new String[0];
+            return;
+        }
+
+        // Each node walks its own permutation (offset + j * skip) mod M, claiming the next free slot
+        List<String> ordered = new ArrayList<>(nodes.keySet());
+        int n = ordered.size();
+        long[] offsets = new long[n];
+        long[] skips = new long[n];
+        long[] next = new long[n];
+        double[] turnShare = new double[n];
+        double[] credit = new double[n];
+        double maxWeight = Collections.max(nodes.values());
+        for (int i = 0; i < n; i++) {
+            String node = ordered.get(i);
+            offsets[i] = Long.remainderUnsigned(KeyHasher.hash(node + "#offset"), tableSize);
+            skips[i] = Long.remainderUnsigned(KeyHasher.hash(node + "#skip"), tableSize - 1) + 1;
+            turnShare[i] = nodes.get(node) / maxWeight;
+        }
+
+        String[] newTable = new String[tableSize];
+        int filled = 0;
+        while (filled < tableSize) {
+            for (int i = 0; i < n && filled < tableSize; i++) {
+                // Weighted round: a node claims a slot each time it has accumulated a full turn
+                credit[i] += turnShare[i];
+                if (credit[i] < 1.0) {
+                    continue;
+                }
+                credit[i] -= 1.0;
+
+                int slot = (int) ((offsets[i] + next[i] * skips[i]) % tableSize);
+                while (newTable[slot] != null) {
+                    next[i]++;
+                    slot = (int) ((offsets[i] + next[i] * skips[i]) % tableSize);
+                }
+                newTable[slot] = ordered.get(i);
+                next[i]++;
+                filled++;
+            }
+        }
+        table = newTable;
+    }
+
+    // Slot from the high bits of the unsigned hash, so slots tile the hash space in order
+    private int slotOf(long hash) {
+        return (int) Math.unsignedMultiplyHigh(hash, tableSize);
+    }
+
+    // First hash (as unsigned position) mapped to the slot: ceil(slot * 2^64 / M)
+    private long slotStart(int slot) {
+        if (slot == 0) {
+            return 0;
+        }
+        if (slot == tableSize) {
+            return 0; // 2^64 wraps to 0, so the last range ends at -1 (unsigned max)
+        }
+        BigInteger numerator = BigInteger.valueOf(slot).shiftLeft(64).add(BigInteger.valueOf(tableSize - 1));
+        return numerator.divide(BigInteger.valueOf(tableSize)).longValue();
+    }
+}
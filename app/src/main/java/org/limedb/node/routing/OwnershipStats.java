@@ -0,0 +1,64 @@
+package org.limedb.node.routing;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Balance statistics shared by the routing strategies
+ */
+final class OwnershipStats {
+
+    static final double HASH_SPACE = Math.pow(2, 64);
+
+    private OwnershipStats() {
+    }
+
+    /**
+     * Interpret a long as an unsigned 64-bit count
+     */
+    static double unsigned(long value) {
+        return (double) (value >>> 1) * 2.0 + (value & 1);
+    }
+
+    /**
+     * Share of the hash space covered by a range of the given size, as a percentage
+     */
+    static double percentOfSpace(long size) {
+        double fraction = size == 0 ? 1.0 : unsigned(size) / HASH_SPACE;
+        return Math.round(fraction * 1_000_000.0) / 10_000.0;
+    }
+
+    /**
+     * Add ownership percentages and balance figures to a stats map.
+     * Each node's share is compared with its weighted target, weight / total weight:
+     * maxOverMean is the load of the node furthest above its target relative to that target
+     * (1.0 is ideal), and stdDevPercent is the spread of the differences.
+     */
+    static void put(Map<String, Object> stats, Map<String, Double> ownershipFractions, Map<String, Double> weights) {
+        Map<String, Double> percent = new HashMap<>();
+        ownershipFractions.forEach((node, fraction) -> percent.put(node, Math.round(fraction * 10000.0) / 100.0));
+        stats.put("ownershipPercent", percent);
+
+        Map<String, Object> balance = new HashMap<>();
+        double totalWeight = 0;
+        for (String node : ownershipFractions.keySet()) {
+            totalWeight += weights.getOrDefault(node, 1.0);
+        }
+        if (!ownershipFractions.isEmpty()) {
+            double max = 0;
+            double min = Double.MAX_VALUE;
+            double squares = 0;
+            for (Map.Entry<String, Double> entry : ownershipFractions.entrySet()) {
+                double target = weights.getOrDefault(entry.getKey(), 1.0) / totalWeight;
+                double fraction = entry.getValue();
+                max = Math.max(max, fraction / target);
+                min = Math.min(min, fraction / target);
+                squares += (fraction - target) * (fraction - target);
+            }
+            balance.put("maxOverMean", Math.round(max * 1000.0) / 1000.0);
+            balance.put("minOverMean", Math.round(min * 1000.0) / 1000.0);
+            balance.put("stdDevPercent", Math.round(Math.sqrt(squares / ownershipFractions.size()) * 10000.0) / 100.0);
+        }
+        stats.put("balance", balance);
+    }
+}
@@ -0,0 +1,124 @@
+package org.limedb.node.routing;
+
+import java.util.*;
+
+/**
+ * Weighted rendezvous (highest random weight) hashing.
+ * Every node scores the key and the highest score wins; with the logarithmic score
+ * -weight / ln(u) each node receives keys in proportion to its weight, and a
+ * membership change only moves the keys won by the node that joined or left.
+ * Lookup is O(n) in the number of nodes, which is fine for small clusters.
+ * Ownership is not contiguous in hash space, so no ranges are reported.
+ */
+public class RendezvousRouting implements RoutingStrategy {
+
+    public static final String NAME = "rendezvous";
+
+    private record Candidate(String nodeUrl, long seed, double weight) {}
+
+    private volatile List<Candidate> candidates = List.of();
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public synchronized void addNode(String nodeUrl) {
+        if (!getNodes().contains(nodeUrl)) {
+            addNode(nodeUrl, 1.0);
+        }
+    }
+
+    @Override
+    public synchronized void addNode(String nodeUrl, double weight) {
+        RoutingStrategy.checkWeight(weight);
+        List<Candidate> updated = new ArrayList<>(candidates);
+        updated.removeIf(candidate -> candidate.nodeUrl().equals(nodeUrl));
+        updated.add(new Candidate(nodeUrl, KeyHasher.hash(nodeUrl), weight));
+        candidates = List.copyOf(updated);
+    }
+
+    @Override
+    public synchronized void removeNode(String nodeUrl) {
+        List<Candidate> updated = new ArrayList<>(candidates);
+        updated.removeIf(candidate -> candidate.nodeUrl().equals(nodeUrl));
+        candidates = List.copyOf(updated);
+    }
+
+    @Override
+    public String getNode(String key) {
+        long keyHash = KeyHasher.hash(key);
+        String best = null;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        for (Candidate candidate : candidates) {
+            double score = score(keyHash, candidate);
+            if (score > bestScore) {
+                bestScore = score;
+                best = candidate.nodeUrl();
+            }
+        }
+        return best;
+    }
+
+    @Override
+    public Set<String> getNodes() {
+        Set<String> nodes = new HashSet<>();
+        for (Candidate candidate : candidates) {
+            nodes.add(candidate.nodeUrl());
+        }
+        return nodes;
+    }
+
+    @Override
+    public int getNodeCount() {
+        return candidates.size();
+    }
+
+    @Override
+    public synchronized void initializeRing(List<String> nodeUrls, Map<String, Double> weights) {
+        candidates = List.of();
+        for (String nodeUrl : nodeUrls) {
+            addNode(nodeUrl, weights.getOrDefault(nodeUrl, 1.0));
+        }
+    }
+
+    @Override
+    public Map<String, Object> getRingStats() {
+        List<Candidate> current = candidates;
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("strategy", NAME);
+        stats.put("totalNodes", current.size());
+
+        // Expected share is exactly proportional to weight
+        double totalWeight = current.stream().mapToDouble(Candidate::weight).sum();
+        Map<String, Double> weights = new HashMap<>();
+        Map<String, Double> ownership = new HashMap<>();
+        for (Candidate candidate : current) {
+            weights.put(candidate.nodeUrl(), candidate.weight());
+            ownership.put(candidate.nodeUrl(), candidate.weight() / totalWeight);
+        }
+        stats.put("weights", weights);
+        OwnershipStats.put(stats, ownership, weights);
+        return stats;
+    }
+
+    @Override
+    public Map<String, List<Map<String, Object>>> getNodeRanges() {
+        return new HashMap<>();
+    }
+
+    private static double score(long keyHash, Candidate candidate) {
+        // Uniform value in (0, 1) from the key/node pair
+        long mixed = mix(keyHash ^ candidate.seed());
+        double uniform = ((mixed >>> 11) + 0.5) * 0x1.0p-53;
+        return -candidate.weight() / Math.log(uniform);
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -9,31 +9,46 @@ import jakarta.annotation.PostConstruct;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * Service that manages consistent hashing routing for the distributed key-value
- * store.
- * Integrates with Spring Boot and provides high-level routing operations.
+ * Service that manages key routing for the distributed key-value store.
+ * The routing strategy (consistent hash ring, jump, rendezvous or Maglev) is chosen with
+ * node.routing.strategy; this service integrates it with Spring Boot and provides
+ * high-level routing operations.
  */
 @Service
 public class RoutingService {
 
     private static final Logger logger = LoggerFactory.getLogger(RoutingService.class);
 
-    private final ConsistentHashRing hashRing;
+    private final RoutingStrategy routingStrategy;
     private final List<String> peerUrls;
     private final String currentNodeUrl;
+    private final AtomicLong topologyVersion = new AtomicLong();
+    // Capacity weights from configuration plus runtime changes; nodes not listed weigh 1.0
+    private final Map<String, Double> nodeWeights;
+    private final int maxListedRanges;
 
     public RoutingService(
+            @Value("${node.routing.strategy:consistent-hash}") String strategyName,
             @Value("${node.routing.virtual-nodes:150}") int virtualNodes,
+            @Value("${node.routing.maglev.table-size:65537}") int maglevTableSize,
+            @Value("${node.routing.weights:}") String weights,
+            @Value("${node.routing.max-listed-ranges:4096}") int maxListedRanges,
             @Value("#{@peerUrls}") List<String> peerUrls,
             @Value("${server.port:7001}") int serverPort) {
 
-        this.hashRing = new ConsistentHashRing(virtualNodes);
+        this.routingStrategy = RoutingStrategy.create(strategyName, virtualNodes, maglevTableSize);
+        this.nodeWeights = parseWeights(weights);
+        this.maxListedRanges = maxListedRanges;
         this.peerUrls = peerUrls;
         this.currentNodeUrl = "http://localhost:" + serverPort;
 
-        logger.info("RoutingService initialized with {} virtual nodes per physical node", virtualNodes);
+        logger.info("RoutingService initialized with '{}' strategy ({} virtual nodes per physical node, Maglev table size {})",
+                strategyName, virtualNodes, maglevTableSize);
     }
 
     /**
@@ -41,11 +56,12 @@ public class RoutingService {
      */
     @PostConstruct
     public void initializeRing() {
-        hashRing.initializeRing(peerUrls);
-        logger.info("Hash ring initialized with {} nodes: {}", peerUrls.size(), peerUrls);
+        routingStrategy.initializeRing(peerUrls, nodeWeights);
+        logger.info("Hash ring initialized with {} nodes: {} (weights: {}, effective: {})",
+                peerUrls.size(), peerUrls, nodeWeights, effectiveWeights(peerUrls));
 
         // Log ring statistics
-        Map<String, Object> stats = hashRing.getRingStats();
+        Map<String, Object> stats = routingStrategy.getRingStats();
         logger.info("Ring stats: {}", stats);
     }
 
@@ -53,7 +69,7 @@ public class RoutingService {
      * Get the target node URL for a given key
      */
     public String getTargetNodeUrl(String key) {
-        String targetUrl = hashRing.getNode(key);
+        String targetUrl = routingStrategy.getNode(key);
         logger.debug("Key '{}' routes to node: {}", key, targetUrl);
         return targetUrl;
     }
@@ -73,7 +89,7 @@ public class RoutingService {
      * Get all nodes in the ring
      */
     public Set<String> getAllNodes() {
-        return hashRing.getNodes();
+        return routingStrategy.getNodes();
     }
 
     /**
@@ -84,13 +100,24 @@ public class RoutingService {
     }
 
     /**
-     * Add a new node to the ring (for dynamic scaling)
+     * Add a new node to the ring (for dynamic scaling), using its configured weight if any
      */
     public void addNode(String nodeUrl) {
-        hashRing.addNode(nodeUrl);
-        logger.info("Added node to ring: {}", nodeUrl);
+        addNode(nodeUrl, nodeWeights.getOrDefault(nodeUrl, 1.0));
+    }
 
-        Map<String, Object> stats = hashRing.getRingStats();
+    /**
+     * Add a node with a capacity weight, or change the weight of a node already in the ring.
+     * Only keys moving to or from that node change owner.
+     */
+    public void addNode(String nodeUrl, double weight) {
+        routingStrategy.addNode(nodeUrl, weight);
+        nodeWeights.put(nodeUrl, weight);
+        topologyVersion.incrementAndGet();
+        logger.info("Added node to ring: {} (weight {}, effective {})",
+                nodeUrl, weight, routingStrategy.effectiveWeight(weight));
+
+        Map<String, Object> stats = routingStrategy.getRingStats();
         logger.info("Updated ring stats: {}", stats);
     }
 
@@ -98,10 +125,11 @@ public class RoutingService {
      * Remove a node from the ring (for dynamic scaling or failure handling)
      */
     public void removeNode(String nodeUrl) {
-        hashRing.removeNode(nodeUrl);
+        routingStrategy.removeNode(nodeUrl);
+        topologyVersion.incrementAndGet();
         logger.info("Removed node from ring: {}", nodeUrl);
 
-        Map<String, Object> stats = hashRing.getRingStats();
+        Map<String, Object> stats = routingStrategy.getRingStats();
         logger.info("Updated ring stats: {}", stats);
     }
 
@@ -109,21 +137,52 @@ public class RoutingService {
      * Get detailed ring statistics for monitoring
      */
     public Map<String, Object> getRingStatistics() {
-        return hashRing.getRingStats();
+        return routingStrategy.getRingStats();
+    }
+
+    /**
+     * Get a counter that changes whenever ring membership changes,
+     * so range-aligned structures know when to rebuild
+     */
+    public long getTopologyVersion() {
+        return topologyVersion.get();
+    }
+
+    /**
+     * Get the ring position of a key
+     */
+    public long hashKey(String key) {
+        return KeyHasher.hash(key);
     }
 
     /**
      * Get hash ranges for each node in the ring
      */
     public Map<String, List<Map<String, Object>>> getNodeRanges() {
-        return hashRing.getNodeRanges();
+        return routingStrategy.getNodeRanges();
+    }
+
+    /**
+     * Get the number of hash ranges the strategy reports across all nodes
+     */
+    public int getRangeCount() {
+        return routingStrategy.getRangeCount();
+    }
+
+    /**
+     * Check whether the ranges are few enough to list and track one by one.
+     * Maglev splits each node over tens of thousands of slot runs; range listings and
+     * per-range statistics then report per node instead.
+     */
+    public boolean rangesListable() {
+        return getRangeCount() <= maxListedRanges;
     }
 
     /**
      * Get hash ranges for each node converted to 360-degree ranges for visualization
      */
     public Map<String, List<Map<String, Object>>> getNodeRangesDegrees() {
-        return hashRing.getNodeRangesDegrees();
+        return routingStrategy.getNodeRangesDegrees();
     }
 
     /**
@@ -132,12 +191,42 @@ public class RoutingService {
      */
     public void updateTopology(List<String> newPeerUrls) {
         logger.info("Updating ring topology. Old nodes: {}, New nodes: {}",
-                hashRing.getNodes(), newPeerUrls);
+                routingStrategy.getNodes(), newPeerUrls);
 
-        hashRing.initializeRing(newPeerUrls);
+        routingStrategy.initializeRing(newPeerUrls, nodeWeights);
+        topologyVersion.incrementAndGet();
 
-        logger.info("Ring topology updated successfully");
-        Map<String, Object> stats = hashRing.getRingStats();
+        logger.info("Ring topology updated successfully (effective weights: {})", effectiveWeights(newPeerUrls));
+        Map<String, Object> stats = routingStrategy.getRingStats();
         logger.info("New ring stats: {}", stats);
     }
-}
\ No newline at end of file
+
+    // Weights as the strategy applies them, which may be rounded to whole virtual nodes or buckets
+    private Map<String, Double> effectiveWeights(List<String> nodeUrls) {
+        Map<String, Double> effective = new TreeMap<>();
+        for (String nodeUrl : nodeUrls) {
+            effective.put(nodeUrl, routingStrategy.effectiveWeight(nodeWeights.getOrDefault(nodeUrl, 1.0)));
+        }
+        return effective;
+    }
+
+    /**
+     * Parse "url=weight,url=weight" from node.routing.weights
+     */
+    private static Map<String, Double> parseWeights(String weights) {
+        Map<String, Double> parsed = new ConcurrentHashMap<>();
+        for (String item : weights.split(",")) {
+            if (item.isBlank()) {
+                continue;
+            }
+            int separator = item.lastIndexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid node weight '" + item + "', expected url=weight");
+            }
+            double weight = Double.parseDouble(item.substring(separator + 1).trim());
+            RoutingStrategy.checkWeight(weight);
+            parsed.put(item.substring(0, separator).trim(), weight);
+        }
+        return parsed;
+    }
+}
@@ -0,0 +1,149 @@
+package org.limedb.node.routing;
+
+import java.util.*;
+
+/**
+ * Maps keys to the physical node that owns them.
+ * Implementations are selected with node.routing.strategy and must be deterministic:
+ * every node in the cluster builds the same mapping from the same membership list.
+ */
+public interface RoutingStrategy {
+
+    /**
+     * Largest relative difference allowed between a configured weight and the weight a strategy can apply
+     */
+    double WEIGHT_TOLERANCE = 0.05;
+
+    /**
+     * Name used in configuration and reported in ring statistics
+     */
+    String getName();
+
+    /**
+     * Add a node with the default weight of 1.0; no-op if the node is already present
+     */
+    void addNode(String nodeUrl);
+
+    /**
+     * Add a node with a capacity weight, or change the weight of an existing node.
+     * A node's share of the keys scales with its weight (1.0 is a standard node),
+     * and a weight change only moves keys to or from that node.
+     * Throws IllegalArgumentException if the strategy cannot apply the weight within WEIGHT_TOLERANCE.
+     */
+    void addNode(String nodeUrl, double weight);
+
+    /**
+     * Weight the strategy actually applies for a configured one. Strategies that give a node
+     * a whole number of virtual nodes or buckets round it; the others apply it exactly.
+     */
+    default double effectiveWeight(double weight) {
+        return weight;
+    }
+
+    void removeNode(String nodeUrl);
+
+    /**
+     * Get the node responsible for a given key, or null if there are no nodes
+     */
+    String getNode(String key);
+
+    Set<String> getNodes();
+
+    int getNodeCount();
+
+    /**
+     * Replace the membership with a list of node URLs, all with weight 1.0
+     */
+    default void initializeRing(List<String> nodeUrls) {
+        initializeRing(nodeUrls, Map.of());
+    }
+
+    /**
+     * Replace the membership with a list of node URLs; nodes missing from the weights map get 1.0
+     */
+    void initializeRing(List<String> nodeUrls, Map<String, Double> weights);
+
+    /**
+     * Get statistics for monitoring, including each node's weight and share of the key space
+     */
+    Map<String, Object> getRingStats();
+
+    /**
+     * Get the contiguous hash ranges each node owns, each with its share of the hash space as "percent".
+     * Strategies that do not partition the hash space into ranges (jump, rendezvous)
+     * return an empty map; range-level statistics then fall back to one entry per node.
+     */
+    Map<String, List<Map<String, Object>>> getNodeRanges();
+
+    /**
+     * Number of ranges getNodeRanges() would report, without building them
+     */
+    default int getRangeCount() {
+        return getNodeRanges().values().stream().mapToInt(List::size).sum();
+    }
+
+    /**
+     * Get hash ranges for each node converted to 360-degree ranges for visualization
+     */
+    default Map<String, List<Map<String, Object>>> getNodeRangesDegrees() {
+        Map<String, List<Map<String, Object>>> nodeRanges = new HashMap<>();
+        double totalHashSpace = Math.pow(2, 64);
+
+        getNodeRanges().forEach((node, ranges) -> {
+            List<Map<String, Object>> degrees = new ArrayList<>();
+            for (Map<String, Object> range : ranges) {
+                long start = (Long) range.get("start");
+                long end = (Long) range.get("end");
+                double startDegrees = ((double) start - Long.MIN_VALUE) / totalHashSpace * 360.0;
+                double endDegrees = ((double) end - Long.MIN_VALUE) / totalHashSpace * 360.0;
+                double sizeDegrees = start > end ? (360.0 - startDegrees) + endDegrees : endDegrees - startDegrees;
+
+                Map<String, Object> converted = new HashMap<>();
+                converted.put("startHash", start);
+                converted.put("endHash", end);
+                converted.put("hash", range.get("hash"));
+                converted.put("startDegrees", Math.round(startDegrees * 100.0) / 100.0);
+                converted.put("endDegrees", Math.round(endDegrees * 100.0) / 100.0);
+                converted.put("sizeDegrees", Math.round(sizeDegrees * 100.0) / 100.0);
+                converted.put("sizeHash", range.get("size"));
+                degrees.add(converted);
+            }
+            nodeRanges.put(node, degrees);
+        });
+
+        return nodeRanges;
+    }
+
+    /**
+     * Reject weights that cannot scale a node's share
+     */
+    static void checkWeight(double weight) {
+        if (!(weight > 0) || Double.isInfinite(weight)) {
+            throw new IllegalArgumentException("Node weight must be positive: " + weight);
+        }
+    }
+
+    /**
+     * Reject a weight whose rounded form would give the node a noticeably different share
+     */
+    static void checkRepresentable(double weight, double effective, String resolution) {
+        if (Math.abs(effective - weight) > weight * WEIGHT_TOLERANCE) {
+            throw new IllegalArgumentException("Node weight " + weight + " cannot be represented with " + resolution
+                    + " (effective weight " + effective + "); raise node.routing.virtual-nodes");
+        }
+    }
+
+    /**
+     * Create a strategy from its configured name.
+     * virtualNodes is the number of ring points (consistent-hash) or buckets (jump) per unit of weight.
+     */
+    static RoutingStrategy create(String name, int virtualNodes, int maglevTableSize) {
+        return switch (name) {
+            case ConsistentHashRing.NAME -> new ConsistentHashRing(virtualNodes);
+            case JumpHashRouting.NAME -> new JumpHashRouting(virtualNodes);
+            case RendezvousRouting.NAME -> new RendezvousRouting();
+            case MaglevRouting.NAME -> new MaglevRouting(maglevTableSize);
+            default -> throw new IllegalArgumentException("Unknown routing strategy: " + name);
+        };
+    }
+}
@@ -0,0 +1,24 @@
+package org.limedb.node.service;
+
+import org.limedb.node.model.EntryChange;
+
+/**
+ * Callback for components that track local writes (repair trees, change feeds).
+ * Invoked by NodeService after every local mutation has been applied to the repository.
+ */
+public interface EntryChangeListener {
+
+    /**
+     * @param key    the key that changed
+     * @param change the row as stored before the change (possibly expired but not yet swept,
+     *               see {@link EntryChange#previousLive()}) and the value after it, null if deleted
+     */
+    void onEntryChanged(String key, EntryChange change);
+
+    /**
+     * Entries were written through the repository's bulk path without per-key callbacks;
+     * anything derived from the data should be considered stale.
+     */
+    default void onBulkLoad() {
+    }
+}
@@ -0,0 +1,48 @@
+package org.limedb.node.service;
+
+import org.limedb.node.repository.NodeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Removes expired entries in the background.
+ * Reads already treat expired entries as absent; sweeping them through NodeService
+ * keeps the repair trees and other change listeners in step with the deletes.
+ */
+@Service
+public class ExpiryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExpiryService.class);
+    private static final int SWEEP_BATCH_SIZE = 1000;
+
+    private final NodeRepository repository;
+    private final NodeService nodeService;
+
+    public ExpiryService(NodeRepository repository, NodeService nodeService) {
+        this.repository = repository;
+        this.nodeService = nodeService;
+    }
+
+    @Scheduled(fixedDelayString = "${node.expiry.sweep-interval-ms:1000}")
+    public void sweep() {
+        long now = System.currentTimeMillis();
+        int removed = 0;
+        List<String> keys;
+        do {
+            keys = repository.findExpiredKeys(now, SWEEP_BATCH_SIZE);
+            for (String key : keys) {
+                if (nodeService.deleteExpiredLocal(key, now)) {
+                    removed++;
+                }
+            }
+        } while (keys.size() == SWEEP_BATCH_SIZE);
+
+        if (removed > 0) {
+            logger.debug("Swept {} expired entries", removed);
+        }
+    }
+}
@@ -1,22 +1,42 @@
 package org.limedb.node.service;
 
+import org.limedb.node.admission.AdmissionService;
+import org.limedb.node.dto.CompareAndSetRequest;
+import org.limedb.node.dto.CounterRequest;
+import org.limedb.node.dto.EntryResponse;
+import org.limedb.node.dto.ExpireRequest;
+import org.limedb.node.dto.KeyValue;
 import org.limedb.node.dto.SetRequest;
+import org.limedb.node.hotkey.HotKeyService;
+import org.limedb.node.model.EntryChange;
+import org.limedb.node.model.VersionedValue;
 import org.limedb.node.repository.NodeRepository;
 import org.limedb.node.routing.RoutingService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.client.ResourceAccessException;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
 
 @Service
 public class NodeService {
 
+    private static final int KEY_LOCK_STRIPES = 1024;
+
     private final NodeRepository repository;
     private final RoutingService routingService;
+    private final List<EntryChangeListener> changeListeners;
+    private final AdmissionService admission;
+    private final HotKeyService hotKeys;
+    // Striped per-key locks (not synchronized, which would pin the virtual threads RESP commands run on)
+    private final ReentrantLock[] keyLocks = new ReentrantLock[KEY_LOCK_STRIPES];
     
     @Autowired
     private int nodeId;
@@ -27,9 +47,17 @@ public class NodeService {
     @Autowired
     private RestTemplate restTemplate;
 
-    public NodeService(NodeRepository repository, RoutingService routingService) {
+    public NodeService(NodeRepository repository, RoutingService routingService,
+                       List<EntryChangeListener> changeListeners, AdmissionService admission,
+                       HotKeyService hotKeys) {
         this.repository = repository;
         this.routingService = routingService;
+        this.changeListeners = changeListeners;
+        this.admission = admission;
+        this.hotKeys = hotKeys;
+        for (int i = 0; i < KEY_LOCK_STRIPES; i++) {
+            keyLocks[i] = new ReentrantLock();
+        }
     }
 
     /**
@@ -51,7 +79,7 @@ public class NodeService {
      */
     public ResponseEntity<String> handleGet(String key) {
         if (shouldHandleLocally(key)) {
-            String value = getLocal(key);
+            String value = runLocal(key, () -> getLocal(key));
             return value != null ? ResponseEntity.ok(value) : ResponseEntity.notFound().build();
         } else {
             return forwardGet(key);
@@ -62,11 +90,21 @@ public class NodeService {
      * Handle SET request - either locally or forward to peer
      */
     public ResponseEntity<String> handleSet(String key, String value) {
+        return handleSet(key, value, 0);
+    }
+
+    /**
+     * Handle SET with a time to live in milliseconds (0 = no expiry); value and expiry are written together
+     */
+    public ResponseEntity<String> handleSet(String key, String value, long ttlMillis) {
         if (shouldHandleLocally(key)) {
-            setLocal(key, value);
+            runLocal(key, () -> {
+                setLocal(key, value, ttlMillis);
+                return null;
+            });
             return ResponseEntity.ok("OK");
         } else {
-            return forwardSet(key, value);
+            return forwardSet(key, value, ttlMillis);
         }
     }
 
@@ -75,13 +113,83 @@ public class NodeService {
      */
     public ResponseEntity<String> handleDelete(String key) {
         if (shouldHandleLocally(key)) {
-            boolean deleted = deleteLocal(key);
+            boolean deleted = runLocal(key, () -> deleteLocal(key));
             return ResponseEntity.ok(deleted ? "1" : "0");
         } else {
             return forwardDelete(key);
         }
     }
 
+    /**
+     * Handle EXPIRE request - either locally or forward to peer.
+     * A non-positive TTL deletes the key, like Redis.
+     */
+    public ResponseEntity<String> handleExpire(String key, long seconds) {
+        if (seconds <= 0) {
+            return handleDelete(key);
+        }
+        if (shouldHandleLocally(key)) {
+            boolean applied = runLocal(key, () -> expireLocal(key, seconds));
+            return ResponseEntity.ok(applied ? "1" : "0");
+        } else {
+            return forwardExpire(key, seconds);
+        }
+    }
+
+    /**
+     * Handle GET of a value with its version - either locally or forward to peer
+     */
+    public ResponseEntity<EntryResponse> handleGetVersioned(String key) {
+        if (shouldHandleLocally(key)) {
+            Optional<VersionedValue> entry = runLocal(key, () -> repository.getVersioned(key));
+            return entry.map(v -> ResponseEntity.ok(new EntryResponse(key, v.value(), v.version(), null)))
+                    .orElseGet(() -> ResponseEntity.notFound().build());
+        } else {
+            return forwardEntryOperation(key, "/api/v1/entry/" + key, null);
+        }
+    }
+
+    /**
+     * Handle INCR/DECR - applied atomically at the owner, forwarded once otherwise
+     */
+    public ResponseEntity<EntryResponse> handleIncrement(String key, long delta) {
+        if (shouldHandleLocally(key)) {
+            return ResponseEntity.ok(toResponse(key, runLocal(key, () -> incrementLocal(key, delta))));
+        } else {
+            return forwardEntryOperation(key, "/api/v1/incr", new CounterRequest(key, delta));
+        }
+    }
+
+    /**
+     * Handle compare-and-set by version; 409 with the current entry when the version does not match
+     */
+    public ResponseEntity<EntryResponse> handleCompareAndSet(String key, String value, long expectedVersion) {
+        if (shouldHandleLocally(key)) {
+            return runLocal(key, () -> {
+                Optional<EntryChange> change = compareAndSetLocal(key, expectedVersion, value);
+                if (change.isPresent()) {
+                    return ResponseEntity.ok(toResponse(key, change.get()));
+                }
+                VersionedValue current = repository.getVersioned(key).orElse(new VersionedValue(null, 0));
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body(new EntryResponse(key, current.value(), current.version(), null));
+            });
+        } else {
+            return forwardEntryOperation(key, "/api/v1/cas", new CompareAndSetRequest(key, value, expectedVersion));
+        }
+    }
+
+    /**
+     * Handle GETSET - store a value and return the one it replaced
+     */
+    public ResponseEntity<EntryResponse> handleGetAndSet(String key, String value) {
+        if (shouldHandleLocally(key)) {
+            return ResponseEntity.ok(toResponse(key, runLocal(key, () -> getAndSetLocal(key, value))));
+        } else {
+            return forwardEntryOperation(key, "/api/v1/getset", new SetRequest(key, value));
+        }
+    }
+
     // Local operations (original methods)
     public String getLocal(String key) {
         Optional<String> value = repository.get(key);
@@ -89,11 +197,96 @@ public class NodeService {
     }
 
     public void setLocal(String key, String value) {
-        repository.set(key, value);
+        setLocal(key, value, 0);
+    }
+
+    public void setLocal(String key, String value, long ttlMillis) {
+        Long expiresAt = ttlMillis > 0 ? System.currentTimeMillis() + ttlMillis : null;
+        apply(key, () -> repository.set(key, value, expiresAt));
     }
 
     public boolean deleteLocal(String key) {
-        return repository.delete(key);
+        Optional<EntryChange> change = applyIfPresent(key, () -> repository.delete(key));
+        // Removing an expired row that was not swept yet deletes nothing readers could see
+        return change.map(EntryChange::previousLive).orElse(false);
+    }
+
+    public boolean expireLocal(String key, long seconds) {
+        return repository.expire(key, System.currentTimeMillis() + seconds * 1000);
+    }
+
+    /**
+     * Remove a key whose expiry has passed; no-op if it was rewritten in the meantime
+     */
+    public boolean deleteExpiredLocal(String key, long now) {
+        return applyIfPresent(key, () -> repository.deleteIfExpired(key, now)).isPresent();
+    }
+
+    /**
+     * Remove a key only if it was not rewritten since the given version was read
+     */
+    public boolean deleteIfVersionLocal(String key, long version) {
+        return applyIfPresent(key, () -> repository.deleteIfVersion(key, version)).isPresent();
+    }
+
+    public EntryChange incrementLocal(String key, long delta) {
+        return apply(key, () -> repository.increment(key, delta));
+    }
+
+    public Optional<EntryChange> compareAndSetLocal(String key, long expectedVersion, String value) {
+        return applyIfPresent(key, () -> repository.compareAndSet(key, expectedVersion, value));
+    }
+
+    /**
+     * Store a value with its expiry deadline (epoch millis, null for none) only if the key is absent
+     */
+    public Optional<EntryChange> insertIfAbsentLocal(String key, String value, Long expiresAtMillis) {
+        return applyIfPresent(key, () -> repository.insertIfAbsent(key, value, expiresAtMillis));
+    }
+
+    public EntryChange getAndSetLocal(String key, String value) {
+        return apply(key, () -> repository.getAndSet(key, value));
+    }
+
+    /**
+     * Load a batch of entries owned by this node through the bulk path
+     */
+    public void bulkLoadLocal(List<KeyValue> entries) {
+        repository.bulkLoad(entries);
+        for (EntryChangeListener listener : changeListeners) {
+            listener.onBulkLoad();
+        }
+    }
+
+    // Work on a key this node owns: counted for hot key statistics, subject to admission control
+    private <T> T runLocal(String key, Supplier<T> work) {
+        hotKeys.record(key);
+        return admission.local(work);
+    }
+
+    /**
+     * Apply a local write and notify listeners while holding the key's lock.
+     * The database orders concurrent writes to a key by its row lock, but the notifications
+     * run after commit; without the lock they could reach the change feed in the other order.
+     */
+    private EntryChange apply(String key, Supplier<EntryChange> write) {
+        return applyIfPresent(key, () -> Optional.of(write.get())).orElseThrow();
+    }
+
+    private Optional<EntryChange> applyIfPresent(String key, Supplier<Optional<EntryChange>> write) {
+        ReentrantLock lock = keyLocks[Math.floorMod(key.hashCode(), KEY_LOCK_STRIPES)];
+        lock.lock();
+        try {
+            Optional<EntryChange> change = write.get();
+            change.ifPresent(c -> {
+                for (EntryChangeListener listener : changeListeners) {
+                    listener.onEntryChanged(key, c);
+                }
+            });
+            return change;
+        } finally {
+            lock.unlock();
+        }
     }
 
     // Backward compatibility methods
@@ -114,25 +307,27 @@ public class NodeService {
         String targetUrl = getTargetNodeUrl(key);
         
         try {
-            return restTemplate.getForEntity(
+            return admission.forward(targetUrl, () -> restTemplate.getForEntity(
                 targetUrl + "/api/v1/get/" + key, 
                 String.class
-            );
+            ));
+        } catch (HttpClientErrorException.NotFound e) {
+            return ResponseEntity.notFound().build();
         } catch (ResourceAccessException e) {
             throw new RuntimeException("Failed to reach peer node " + targetUrl, e);
         }
     }
 
-    private ResponseEntity<String> forwardSet(String key, String value) {
+    private ResponseEntity<String> forwardSet(String key, String value, long ttlMillis) {
         String targetUrl = getTargetNodeUrl(key);
         
         try {
-            SetRequest request = new SetRequest(key, value);
-            return restTemplate.postForEntity(
+            SetRequest request = new SetRequest(key, value, ttlMillis > 0 ? ttlMillis : null);
+            return admission.forward(targetUrl, () -> restTemplate.postForEntity(
                 targetUrl + "/api/v1/set",
                 request,
                 String.class
-            );
+            ));
         } catch (ResourceAccessException e) {
             throw new RuntimeException("Failed to reach peer node " + targetUrl, e);
         }
@@ -142,14 +337,50 @@ public class NodeService {
         String targetUrl = getTargetNodeUrl(key);
         
         try {
-            return restTemplate.exchange(
+            return admission.forward(targetUrl, () -> restTemplate.exchange(
                 targetUrl + "/api/v1/del/" + key,
                 org.springframework.http.HttpMethod.DELETE,
                 null,
                 String.class
-            );
+            ));
+        } catch (ResourceAccessException e) {
+            throw new RuntimeException("Failed to reach peer node " + targetUrl, e);
+        }
+    }
+
+    private ResponseEntity<String> forwardExpire(String key, long seconds) {
+        String targetUrl = getTargetNodeUrl(key);
+
+        try {
+            return admission.forward(targetUrl, () -> restTemplate.postForEntity(
+                targetUrl + "/api/v1/expire",
+                new ExpireRequest(key, seconds),
+                String.class
+            ));
+        } catch (ResourceAccessException e) {
+            throw new RuntimeException("Failed to reach peer node " + targetUrl, e);
+        }
+    }
+
+    // Forward a versioned operation (GET when request is null, POST otherwise), keeping the owner's 4xx status
+    private ResponseEntity<EntryResponse> forwardEntryOperation(String key, String path, Object request) {
+        String targetUrl = getTargetNodeUrl(key);
+
+        try {
+            return admission.forward(targetUrl, () -> request == null
+                    ? restTemplate.getForEntity(targetUrl + path, EntryResponse.class)
+                    : restTemplate.postForEntity(targetUrl + path, request, EntryResponse.class));
+        } catch (HttpClientErrorException e) {
+            EntryResponse body = e.getStatusCode() == HttpStatus.CONFLICT
+                    ? e.getResponseBodyAs(EntryResponse.class)
+                    : null;
+            return ResponseEntity.status(e.getStatusCode()).body(body);
         } catch (ResourceAccessException e) {
             throw new RuntimeException("Failed to reach peer node " + targetUrl, e);
         }
     }
-}
\ No newline at end of file
+
+    private static EntryResponse toResponse(String key, EntryChange change) {
+        return new EntryResponse(key, change.value(), change.version(), change.livePreviousValue());
+    }
+}
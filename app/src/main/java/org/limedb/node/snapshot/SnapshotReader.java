@@ -0,0 +1,87 @@
+package org.limedb.node.snapshot;
+
+import org.limedb.node.routing.HashRange;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Reads files produced by {@link SnapshotWriter} one checksummed block at a time
+ */
+public class SnapshotReader {
+
+    public record Record(long keyHash, String key, String value, Long expiresAt) {}
+
+    private final DataInputStream in;
+    private final HashRange range;
+    private long recordsRead;
+    private boolean finished;
+
+    public SnapshotReader(InputStream in) throws IOException {
+        this.in = new DataInputStream(in);
+
+        byte[] magic = this.in.readNBytes(SnapshotWriter.MAGIC.length);
+        if (!Arrays.equals(magic, SnapshotWriter.MAGIC)) {
+            throw new IOException("Not a LimeDB snapshot");
+        }
+        int version = this.in.readInt();
+        if (version != SnapshotWriter.VERSION) {
+            throw new IOException("Unsupported snapshot version " + version);
+        }
+        this.range = new HashRange(this.in.readLong(), this.in.readLong());
+    }
+
+    public HashRange getRange() {
+        return range;
+    }
+
+    /**
+     * Read and verify the next block, or return null once the footer has been reached
+     */
+    public List<Record> nextBlock() throws IOException {
+        if (finished) {
+            return null;
+        }
+
+        int recordCount = in.readInt();
+        if (recordCount == 0) {
+            long expected = in.readLong();
+            if (expected != recordsRead) {
+                throw new IOException("Snapshot truncated: footer lists " + expected + " records, read " + recordsRead);
+            }
+            finished = true;
+            return null;
+        }
+
+        int payloadLength = in.readInt();
+        byte[] payload = in.readNBytes(payloadLength);
+        if (payload.length != payloadLength) {
+            throw new IOException("Snapshot truncated inside a block");
+        }
+        int checksum = in.readInt();
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        if ((int) crc.getValue() != checksum) {
+            throw new IOException("Checksum mismatch in block after record " + recordsRead);
+        }
+
+        DataInputStream block = new DataInputStream(new ByteArrayInputStream(payload));
+        List<Record> records = new ArrayList<>(recordCount);
+        for (int i = 0; i < recordCount; i++) {
+            long keyHash = block.readLong();
+            String key = new String(block.readNBytes(block.readInt()), StandardCharsets.UTF_8);
+            String value = new String(block.readNBytes(block.readInt()), StandardCharsets.UTF_8);
+            long expiresAt = block.readLong();
+            records.add(new Record(keyHash, key, value, expiresAt != 0 ? expiresAt : null));
+        }
+        recordsRead += recordCount;
+        return records;
+    }
+}
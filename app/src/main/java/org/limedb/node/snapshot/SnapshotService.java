@@ -0,0 +1,137 @@
+package org.limedb.node.snapshot;
+
+import org.limedb.node.dto.KeyValue;
+import org.limedb.node.model.Entry;
+import org.limedb.node.repository.NodeRepository;
+import org.limedb.node.routing.HashRange;
+import org.limedb.node.routing.RoutingService;
+import org.limedb.node.service.NodeService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.*;
+
+/**
+ * Snapshot export and bulk import.
+ * Export streams a node's entries (optionally restricted to a hash range) in ring order
+ * using keyset pagination. Import verifies each block, routes every record to its owner
+ * and writes through the repository's bulk path instead of per-key sets. Expired entries
+ * are left out of exports, the others keep their expiry deadline across export and import.
+ */
+@Service
+public class SnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SnapshotService.class);
+    private static final int EXPORT_PAGE_SIZE = 5000;
+    private static final int BACKFILL_BATCH_SIZE = 1000;
+
+    private final NodeRepository repository;
+    private final NodeService nodeService;
+    private final RoutingService routingService;
+    private final RestTemplate restTemplate;
+
+    public SnapshotService(NodeRepository repository, NodeService nodeService,
+                           RoutingService routingService, RestTemplate restTemplate) {
+        this.repository = repository;
+        this.nodeService = nodeService;
+        this.routingService = routingService;
+        this.restTemplate = restTemplate;
+    }
+
+    /**
+     * Write all local entries in the range to the stream, sorted by key hash
+     */
+    public long export(HashRange range, OutputStream out) throws IOException {
+        // Rows from before the key_hash column existed would otherwise be skipped
+        repository.backfillKeyHashes(BACKFILL_BATCH_SIZE);
+
+        SnapshotWriter writer = new SnapshotWriter(out, range);
+        for (HashRange segment : range.segments()) {
+            long afterHash = segment.start();
+            long afterId = Long.MIN_VALUE;
+            List<Entry> page;
+            do {
+                page = repository.scanHashRange(segment, afterHash, afterId, EXPORT_PAGE_SIZE);
+                for (Entry entry : page) {
+                    writer.write(entry.getKeyHash(), entry.getKey(), entry.getValue(), entry.getExpiresAt());
+                    afterHash = entry.getKeyHash();
+                    afterId = entry.getId();
+                }
+            } while (page.size() == EXPORT_PAGE_SIZE);
+        }
+        writer.close();
+
+        logger.info("Exported {} entries for range {}", writer.getTotalRecords(), range);
+        return writer.getTotalRecords();
+    }
+
+    /**
+     * Load a snapshot stream. Records owned by other nodes are forwarded to them block by block,
+     * unless localOnly is set (used for blocks a peer already routed to us).
+     */
+    public Map<String, Object> importSnapshot(InputStream in, boolean localOnly) throws IOException {
+        SnapshotReader reader = new SnapshotReader(in);
+        String currentNode = routingService.getCurrentNodeUrl();
+
+        long total = 0;
+        long expired = 0;
+        Map<String, Long> perNode = new HashMap<>();
+        List<SnapshotReader.Record> block;
+        while ((block = reader.nextBlock()) != null) {
+            long now = System.currentTimeMillis();
+            Map<String, List<KeyValue>> byOwner = new HashMap<>();
+            for (SnapshotReader.Record record : block) {
+                if (record.expiresAt() != null && record.expiresAt() <= now) {
+                    expired++;
+                    continue;
+                }
+                String owner = localOnly ? currentNode : routingService.getTargetNodeUrl(record.key());
+                byOwner.computeIfAbsent(owner, node -> new ArrayList<>())
+                        .add(new KeyValue(record.key(), record.value(), record.expiresAt()));
+            }
+
+            for (Map.Entry<String, List<KeyValue>> entry : byOwner.entrySet()) {
+                if (entry.getKey().equals(currentNode)) {
+                    nodeService.bulkLoadLocal(entry.getValue());
+                } else {
+                    forward(entry.getKey(), reader.getRange(), entry.getValue());
+                }
+                perNode.merge(entry.getKey(), (long) entry.getValue().size(), Long::sum);
+            }
+            total += block.size();
+        }
+
+        logger.info("Imported {} entries, {} already expired: {}", total - expired, expired, perNode);
+        Map<String, Object> result = new HashMap<>();
+        result.put("records", total);
+        result.put("expiredRecords", expired);
+        result.put("recordsPerNode", perNode);
+        return result;
+    }
+
+    private void forward(String targetUrl, HashRange range, List<KeyValue> entries) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (SnapshotWriter writer = new SnapshotWriter(buffer, range)) {
+            for (KeyValue entry : entries) {
+                writer.write(routingService.hashKey(entry.key()), entry.key(), entry.value(), entry.expiresAt());
+            }
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
+        restTemplate.postForEntity(
+            targetUrl + "/api/v1/snapshot/import?local=true",
+            new HttpEntity<>(buffer.toByteArray(), headers),
+            String.class
+        );
+    }
+}
@@ -0,0 +1,97 @@
+package org.limedb.node.snapshot;
+
+import org.limedb.node.routing.HashRange;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+/**
+ * Writes the LimeDB snapshot format:
+ * <pre>
+ * header : magic "LIMESNAP", int version, long rangeStart, long rangeEnd
+ * block  : int recordCount, int payloadLength, payload, int crc32(payload)
+ * record : long keyHash, int keyLength, key (UTF-8), int valueLength, value (UTF-8), long expiresAt
+ * footer : int 0, long totalRecords
+ * </pre>
+ * Records are buffered into blocks so every block can be verified before it is applied.
+ * expiresAt is the expiry deadline in epoch millis, 0 for none.
+ */
+public class SnapshotWriter implements AutoCloseable {
+
+    static final byte[] MAGIC = "LIMESNAP".getBytes(StandardCharsets.US_ASCII);
+    static final int VERSION = 1;
+    static final int DEFAULT_BLOCK_RECORDS = 10_000;
+
+    private final DataOutputStream out;
+    private final int blockRecords;
+    private final ByteArrayOutputStream blockBuffer = new ByteArrayOutputStream(1 << 20);
+    private final DataOutputStream block = new DataOutputStream(blockBuffer);
+    private int blockCount;
+    private long totalRecords;
+
+    public SnapshotWriter(OutputStream out, HashRange range) throws IOException {
+        this(out, range, DEFAULT_BLOCK_RECORDS);
+    }
+
+    public SnapshotWriter(OutputStream out, HashRange range, int blockRecords) throws IOException {
+        this.out = new DataOutputStream(out);
+        this.blockRecords = blockRecords;
+
+        this.out.write(MAGIC);
+        this.out.writeInt(VERSION);
+        this.out.writeLong(range.start());
+        this.out.writeLong(range.end());
+    }
+
+    /**
+     * @param expiresAt expiry deadline in epoch millis, or null for none
+     */
+    public void write(long keyHash, String key, String value, Long expiresAt) throws IOException {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        byte[] valueBytes = value.getBytes(StandardCharsets.UTF_8);
+        block.writeLong(keyHash);
+        block.writeInt(keyBytes.length);
+        block.write(keyBytes);
+        block.writeInt(valueBytes.length);
+        block.write(valueBytes);
+        block.writeLong(expiresAt != null ? expiresAt : 0);
+
+        if (++blockCount == blockRecords) {
+            flushBlock();
+        }
+    }
+
+    public long getTotalRecords() {
+        return totalRecords + blockCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        flushBlock();
+        out.writeInt(0);
+        out.writeLong(totalRecords);
+        out.flush();
+    }
+
+    private void flushBlock() throws IOException {
+        if (blockCount == 0) {
+            return;
+        }
+        byte[] payload = blockBuffer.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+
+        out.writeInt(blockCount);
+        out.writeInt(payload.length);
+        out.write(payload);
+        out.writeInt((int) crc.getValue());
+
+        totalRecords += blockCount;
+        blockCount = 0;
+        blockBuffer.reset();
+    }
+}
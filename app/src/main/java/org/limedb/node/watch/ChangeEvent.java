@@ -0,0 +1,21 @@
+package org.limedb.node.watch;
+
+/**
+ * One entry in a node's change feed. Sequence numbers are assigned by the owning node
+ * and only increase for the lifetime of its feed (identified by the feed epoch).
+ * Version is the entry version the write stored (0 for deletes and resets); writes to
+ * one key reach the feed in version order.
+ */
+public record ChangeEvent(long sequence, Type type, String key, String value, String previousValue, long version,
+                          long timestamp) {
+
+    public enum Type {
+        SET, DELETE,
+        // Changes were lost for this subscriber (bulk load or unresumable cursor): re-read the keys
+        RESET;
+
+        public String eventName() {
+            return name().toLowerCase();
+        }
+    }
+}
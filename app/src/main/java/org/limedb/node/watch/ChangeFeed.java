@@ -0,0 +1,257 @@
+package org.limedb.node.watch;
+
+import org.limedb.node.model.EntryChange;
+import org.limedb.node.routing.RoutingService;
+import org.limedb.node.service.EntryChangeListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Sequenced feed of the writes applied on this node to the keys it owns.
+ * Changes to misplaced copies (dropped by repair, or swept after expiring) are left out,
+ * since the owner reports those keys. Every change gets the next sequence number and is
+ * stored in a ring holding the most recent history, so subscribers can resume from the
+ * last position they saw. Publishing takes no lock: writers only claim a sequence number
+ * and fill its slot, and wake waiting subscribers if there are any. Each subscriber reads
+ * the ring in sequence order at its own pace; one that falls too far behind is dropped
+ * (overflow) instead of slowing down writers, and can reconnect from its cursor while the
+ * history still covers it.
+ */
+@Component
+public class ChangeFeed implements EntryChangeListener {
+
+    private final RoutingService routingService;
+    private final int historySize;
+    private final int bufferSize;
+    // Distinguishes this feed from the one before a restart, whose sequence numbers are gone
+    private final long epoch = System.currentTimeMillis();
+
+    // Event with sequence s lives in slot s % historySize until it is overwritten
+    private final AtomicReferenceArray<ChangeEvent> ring;
+    private final AtomicLong sequence = new AtomicLong();
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition published = lock.newCondition();
+
+    private final AtomicLong overflows = new AtomicLong();
+    private final AtomicLong resets = new AtomicLong();
+
+    public ChangeFeed(RoutingService routingService,
+                      @Value("${node.watch.history-size:10000}") int historySize,
+                      @Value("${node.watch.buffer-size:1000}") int bufferSize) {
+        this.routingService = routingService;
+        this.historySize = historySize;
+        this.bufferSize = bufferSize;
+        this.ring = new AtomicReferenceArray<>(historySize);
+    }
+
+    @Override
+    public void onEntryChanged(String key, EntryChange change) {
+        if (!routingService.shouldHandleLocally(key)) {
+            return;
+        }
+        // Watchers see the previous value as readers did: an expired one is reported as absent
+        publish(change.value() == null ? ChangeEvent.Type.DELETE : ChangeEvent.Type.SET, key, change.value(),
+                change.livePreviousValue(), change.version());
+    }
+
+    @Override
+    public void onBulkLoad() {
+        publish(ChangeEvent.Type.RESET, null, null, null, 0);
+    }
+
+    /**
+     * Register a subscriber that starts after the given position, or with live events only
+     *
+     * @param position "epoch-sequence" of the last event the subscriber saw, or null for live events only
+     */
+    public Subscription subscribe(WatchFilter filter, String position) {
+        long current = sequence.get();
+        Subscription subscription;
+        if (position == null) {
+            subscription = new Subscription(filter, current + 1, false);
+        } else {
+            long since = resumeSequence(position, current);
+            if (since < 0) {
+                resets.incrementAndGet();
+                subscription = new Subscription(filter, current + 1, true);
+            } else {
+                subscription = new Subscription(filter, since + 1, false);
+            }
+        }
+        subscriptions.add(subscription);
+        return subscription;
+    }
+
+    public void unsubscribe(Subscription subscription) {
+        subscriptions.remove(subscription);
+    }
+
+    /**
+     * Position of an event in this feed, as used in watch cursors
+     */
+    public String position(ChangeEvent event) {
+        return epoch + "-" + event.sequence();
+    }
+
+    /**
+     * Get change feed statistics
+     */
+    public Map<String, Object> getStats() {
+        long current = sequence.get();
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("epoch", epoch);
+        stats.put("sequence", current);
+        stats.put("historySize", Math.min(current, historySize));
+        stats.put("historyCapacity", historySize);
+        stats.put("oldestSequence", oldestSequence(current));
+        stats.put("subscribers", subscriptions.size());
+        stats.put("bufferSize", bufferSize);
+        stats.put("eventsPublished", current);
+        stats.put("overflows", overflows.get());
+        stats.put("resets", resets.get());
+        return stats;
+    }
+
+    private void publish(ChangeEvent.Type type, String key, String value, String previousValue, long version) {
+        long next = sequence.incrementAndGet();
+        ring.set(slot(next), new ChangeEvent(next, type, key, value, previousValue, version, System.currentTimeMillis()));
+        if (!subscriptions.isEmpty()) {
+            lock.lock();
+            try {
+                published.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private int slot(long sequenceNumber) {
+        return (int) (sequenceNumber % historySize);
+    }
+
+    // A slot is only trusted once a later writer cannot be mid-way through overwriting it
+    private long oldestSequence(long current) {
+        return Math.max(1, current - historySize + 2);
+    }
+
+    /**
+     * Sequence to resume after, or -1 if the events after the position are no longer all available
+     */
+    private long resumeSequence(String position, long current) {
+        int separator = position.indexOf('-');
+        long positionEpoch = Long.parseLong(position.substring(0, separator));
+        long since = Long.parseLong(position.substring(separator + 1));
+        if (positionEpoch != epoch || since > current || since < oldestSequence(current) - 1) {
+            return -1;
+        }
+        return since;
+    }
+
+    /**
+     * A subscriber's read position in the feed
+     */
+    public final class Subscription {
+        private final WatchFilter filter;
+        // Only the subscriber's own thread reads and advances the position
+        private long next;
+        private boolean resetPending;
+        private volatile boolean overflowed;
+
+        private Subscription(WatchFilter filter, long next, boolean resetPending) {
+            this.filter = filter;
+            this.next = next;
+            this.resetPending = resetPending;
+        }
+
+        /**
+         * Next matching event in sequence order, waiting up to the timeout; null on timeout or once overflowed
+         */
+        public ChangeEvent poll(long timeoutMillis) throws InterruptedException {
+            if (resetPending) {
+                // Changes before this point could not be replayed
+                resetPending = false;
+                return new ChangeEvent(next - 1, ChangeEvent.Type.RESET, null, null, null, 0, System.currentTimeMillis());
+            }
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+            while (!overflowed) {
+                ChangeEvent event = take();
+                if (event != null) {
+                    return event;
+                }
+                if (overflowed) {
+                    break;
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return null;
+                }
+                if (available()) {
+                    Thread.onSpinWait(); // Its writer is between claiming the sequence and filling the slot
+                    continue;
+                }
+                lock.lock();
+                try {
+                    // Check again under the lock, so a publish between take() and await() is not missed
+                    if (!available()) {
+                        published.awaitNanos(remaining);
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+            return null;
+        }
+
+        /**
+         * True once the subscriber fell behind and was dropped from the feed
+         */
+        public boolean isOverflowed() {
+            return overflowed;
+        }
+
+        // Advance past events that do not match; null once caught up with what is published
+        private ChangeEvent take() {
+            while (true) {
+                long current = sequence.get();
+                if (next > current) {
+                    return null;
+                }
+                if (current - next >= bufferSize || next < oldestSequence(current)) {
+                    overflow();
+                    return null;
+                }
+                ChangeEvent event = ring.get(slot(next));
+                if (event == null || event.sequence() < next) {
+                    return null; // Sequence claimed, but its writer has not filled the slot yet
+                }
+                if (event.sequence() > next) {
+                    overflow(); // Overwritten before it was read
+                    return null;
+                }
+                next++;
+                if (filter.matches(event)) {
+                    return event;
+                }
+            }
+        }
+
+        private boolean available() {
+            return next <= sequence.get();
+        }
+
+        private void overflow() {
+            overflowed = true;
+            overflows.incrementAndGet();
+            subscriptions.remove(this);
+        }
+    }
+}
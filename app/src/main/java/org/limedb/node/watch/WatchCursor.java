@@ -0,0 +1,43 @@
+package org.limedb.node.watch;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Resume cursor carried in SSE event ids: the last position seen on every node the
+ * stream reads from, formatted as "nodeUrl=epoch-sequence[,nodeUrl=epoch-sequence...]".
+ */
+final class WatchCursor {
+
+    private static final Pattern POSITION = Pattern.compile("\\d+-\\d+");
+
+    private WatchCursor() {
+    }
+
+    static Map<String, String> parse(String cursor) {
+        Map<String, String> positions = new LinkedHashMap<>();
+        if (cursor == null || cursor.isBlank()) {
+            return positions;
+        }
+        for (String part : cursor.split(",")) {
+            int separator = part.lastIndexOf('=');
+            if (separator <= 0 || !POSITION.matcher(part.substring(separator + 1)).matches()) {
+                throw new IllegalArgumentException("Invalid watch cursor: " + cursor);
+            }
+            positions.put(part.substring(0, separator).trim(), part.substring(separator + 1));
+        }
+        return positions;
+    }
+
+    static String format(Map<String, String> positions) {
+        StringBuilder cursor = new StringBuilder();
+        for (Map.Entry<String, String> position : positions.entrySet()) {
+            if (!cursor.isEmpty()) {
+                cursor.append(',');
+            }
+            cursor.append(position.getKey()).append('=').append(position.getValue());
+        }
+        return cursor.toString();
+    }
+}
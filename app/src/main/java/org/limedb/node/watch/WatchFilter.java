@@ -0,0 +1,21 @@
+package org.limedb.node.watch;
+
+/**
+ * Selects the events a subscriber receives: one exact key, or every key with a prefix
+ */
+public record WatchFilter(String key, String prefix) {
+
+    public static WatchFilter of(String key, String prefix) {
+        if ((key == null) == (prefix == null)) {
+            throw new IllegalArgumentException("Exactly one of key or prefix is required");
+        }
+        return new WatchFilter(key, prefix);
+    }
+
+    public boolean matches(ChangeEvent event) {
+        if (event.type() == ChangeEvent.Type.RESET) {
+            return true;
+        }
+        return key != null ? key.equals(event.key()) : event.key().startsWith(prefix);
+    }
+}
@@ -0,0 +1,338 @@
+package org.limedb.node.watch;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.limedb.node.routing.RoutingService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Server-sent event streams of key changes.
+ * Changes are emitted by the node that owns the key, so a key watch is served from the
+ * owner's change feed and a prefix watch from the feeds of every node; feeds on other
+ * nodes are relayed through their local watch endpoint. Every event id is the full
+ * resume cursor, so a client that reconnects with Last-Event-ID continues where it left
+ * off. Streams end with an "overflow" event when the client falls behind and a
+ * "topology" event when ownership changes, after which the client should reconnect.
+ */
+@Service
+public class WatchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(WatchService.class);
+
+    private final ChangeFeed changeFeed;
+    private final RoutingService routingService;
+    private final ObjectMapper objectMapper;
+    private final long heartbeatMillis;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicInteger activeStreams = new AtomicInteger();
+
+    public WatchService(ChangeFeed changeFeed, RoutingService routingService, ObjectMapper objectMapper,
+                        @Value("${node.watch.heartbeat-ms:15000}") long heartbeatMillis) {
+        this.changeFeed = changeFeed;
+        this.routingService = routingService;
+        this.objectMapper = objectMapper;
+        this.heartbeatMillis = heartbeatMillis;
+    }
+
+    /**
+     * Open a change stream for one key or a key prefix
+     *
+     * @param cursor resume cursor from a previous stream's last event id, or null
+     * @param local  only stream this node's own feed (used when relaying between nodes)
+     */
+    public SseEmitter watch(String key, String prefix, String cursor, boolean local) {
+        WatchFilter filter = WatchFilter.of(key, prefix);
+        WatchStream stream = new WatchStream(WatchCursor.parse(cursor), routingService.getTopologyVersion());
+
+        String currentNode = routingService.getCurrentNodeUrl();
+        Collection<String> sources;
+        if (local) {
+            sources = List.of(currentNode);
+        } else if (key != null) {
+            sources = List.of(routingService.getTargetNodeUrl(key));
+        } else {
+            sources = routingService.getAllNodes();
+        }
+
+        activeStreams.incrementAndGet();
+        stream.onClose(activeStreams::decrementAndGet);
+        for (String source : sources) {
+            if (source.equals(currentNode)) {
+                ChangeFeed.Subscription subscription = changeFeed.subscribe(filter, stream.position(source));
+                stream.onClose(() -> changeFeed.unsubscribe(subscription));
+                workers.execute(() -> deliver(stream, currentNode, subscription));
+            } else {
+                workers.execute(() -> relay(stream, source, filter));
+            }
+        }
+        return stream.emitter;
+    }
+
+    /**
+     * Get watch statistics
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>(changeFeed.getStats());
+        stats.put("activeStreams", activeStreams.get());
+        stats.put("heartbeatMs", heartbeatMillis);
+        return stats;
+    }
+
+    /**
+     * Stream events from this node's feed
+     */
+    private void deliver(WatchStream stream, String currentNode, ChangeFeed.Subscription subscription) {
+        try {
+            while (stream.isOpen()) {
+                ChangeEvent event = subscription.poll(heartbeatMillis);
+                if (topologyChanged(stream)) {
+                    // Ownership moved: stop before sending anything more, the cursor replays it after reconnecting
+                    stream.end("topology", currentNode);
+                } else if (event != null) {
+                    stream.send(currentNode, changeFeed.position(event), event.type().eventName(),
+                            toJson(currentNode, event));
+                } else if (subscription.isOverflowed()) {
+                    stream.end("overflow", currentNode);
+                } else {
+                    stream.comment("heartbeat");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            stream.close();
+        } catch (IOException | IllegalStateException e) {
+            // Client went away
+            stream.close();
+        }
+    }
+
+    /**
+     * Stream events from another node's feed through its local watch endpoint
+     */
+    private void relay(WatchStream stream, String source, WatchFilter filter) {
+        StringBuilder url = new StringBuilder(source).append("/api/v1/watch?local=true");
+        if (filter.key() != null) {
+            url.append("&key=").append(URLEncoder.encode(filter.key(), StandardCharsets.UTF_8));
+        } else {
+            url.append("&prefix=").append(URLEncoder.encode(filter.prefix(), StandardCharsets.UTF_8));
+        }
+        String position = stream.position(source);
+        if (position != null) {
+            url.append("&since=").append(URLEncoder.encode(source + "=" + position, StandardCharsets.UTF_8));
+        }
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url.toString()))
+                .header("Accept", "text/event-stream")
+                .GET()
+                .build();
+
+        try {
+            HttpResponse<Stream<String>> response = httpClient.send(request, HttpResponse.BodyHandlers.ofLines());
+            try (Stream<String> lines = response.body()) {
+                if (response.statusCode() != 200) {
+                    throw new IOException("HTTP " + response.statusCode());
+                }
+                stream.onClose(lines::close);
+                relayEvents(stream, lines.iterator());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | UncheckedIOException | IllegalStateException e) {
+            if (stream.isOpen()) {
+                logger.warn("Change stream from {} ended: {}", source, e.getMessage());
+            }
+        }
+        // Without this source the stream would silently miss changes, let the client reconnect
+        stream.close();
+    }
+
+    private void relayEvents(WatchStream stream, Iterator<String> lines) throws IOException {
+        String id = null;
+        String name = null;
+        StringBuilder data = new StringBuilder();
+        while (stream.isOpen() && lines.hasNext()) {
+            String line = lines.next();
+            if (line.isEmpty()) {
+                if (name != null && topologyChanged(stream)) {
+                    stream.end("topology", routingService.getCurrentNodeUrl());
+                    return;
+                }
+                if (name != null) {
+                    if (name.equals("overflow") || name.equals("topology")) {
+                        stream.send(id, name, data.toString());
+                        stream.close();
+                        return;
+                    }
+                    stream.send(id, name, data.toString());
+                }
+                id = null;
+                name = null;
+                data.setLength(0);
+            } else if (line.startsWith(":")) {
+                heartbeat(stream);
+            } else if (line.startsWith("id:")) {
+                id = fieldValue(line, 3);
+            } else if (line.startsWith("event:")) {
+                name = fieldValue(line, 6);
+            } else if (line.startsWith("data:")) {
+                if (!data.isEmpty()) {
+                    data.append('\n');
+                }
+                data.append(fieldValue(line, 5));
+            }
+        }
+    }
+
+    private void heartbeat(WatchStream stream) throws IOException {
+        if (topologyChanged(stream)) {
+            stream.end("topology", routingService.getCurrentNodeUrl());
+        } else {
+            stream.comment("heartbeat");
+        }
+    }
+
+    // Checked before every event, not just on idle heartbeats, so a busy stream also notices
+    private boolean topologyChanged(WatchStream stream) {
+        return routingService.getTopologyVersion() != stream.topologyVersion;
+    }
+
+    private String toJson(String node, ChangeEvent event) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("node", node);
+        data.put("sequence", event.sequence());
+        data.put("type", event.type().eventName());
+        data.put("key", event.key());
+        data.put("value", event.value());
+        data.put("previousValue", event.previousValue());
+        data.put("version", event.version());
+        data.put("timestamp", event.timestamp());
+        return writeJson(data);
+    }
+
+    private String writeJson(Map<String, Object> data) {
+        try {
+            return objectMapper.writeValueAsString(data);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize change event", e);
+        }
+    }
+
+    private static String fieldValue(String line, int nameLength) {
+        String value = line.substring(nameLength);
+        return value.startsWith(" ") ? value.substring(1) : value;
+    }
+
+    /**
+     * One client's SSE connection, possibly fed by several sources
+     */
+    private final class WatchStream {
+        final SseEmitter emitter = new SseEmitter(0L);
+        final long topologyVersion;
+        // Guarded by this
+        private final Map<String, String> positions;
+        private final List<Runnable> closeActions = new CopyOnWriteArrayList<>();
+        private volatile boolean open = true;
+
+        WatchStream(Map<String, String> positions, long topologyVersion) {
+            this.positions = positions;
+            this.topologyVersion = topologyVersion;
+            emitter.onCompletion(this::close);
+            emitter.onTimeout(this::close);
+            emitter.onError(e -> close());
+        }
+
+        boolean isOpen() {
+            return open;
+        }
+
+        synchronized String position(String node) {
+            return positions.get(node);
+        }
+
+        /**
+         * Send an event from a local feed, advancing that node's position in the cursor
+         */
+        synchronized void send(String node, String position, String name, String data) throws IOException {
+            positions.put(node, position);
+            send(name, data);
+        }
+
+        /**
+         * Send an event relayed from another node, merging the positions in its cursor
+         */
+        synchronized void send(String cursor, String name, String data) throws IOException {
+            positions.putAll(WatchCursor.parse(cursor));
+            send(name, data);
+        }
+
+        synchronized void comment(String comment) throws IOException {
+            if (open) {
+                emitter.send(SseEmitter.event().comment(comment));
+            }
+        }
+
+        /**
+         * Tell the client why the stream stops, then close it
+         */
+        void end(String reason, String node) throws IOException {
+            Map<String, Object> data = new LinkedHashMap<>();
+            data.put("node", node);
+            data.put("reason", reason);
+            synchronized (this) {
+                send(reason, writeJson(data));
+            }
+            close();
+        }
+
+        void onClose(Runnable action) {
+            closeActions.add(action);
+            if (!open && closeActions.remove(action)) {
+                action.run();
+            }
+        }
+
+        void close() {
+            synchronized (this) {
+                if (!open) {
+                    return;
+                }
+                open = false;
+            }
+            for (Runnable action : closeActions) {
+                if (closeActions.remove(action)) {
+                    action.run();
+                }
+            }
+            emitter.complete();
+        }
+
+        private void send(String name, String data) throws IOException {
+            if (open) {
+                emitter.send(SseEmitter.event().id(WatchCursor.format(positions)).name(name).data(data));
+            }
+        }
+    }
+}
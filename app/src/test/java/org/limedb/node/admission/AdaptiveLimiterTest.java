@@ -0,0 +1,88 @@
+package org.limedb.node.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveLimiterTest {
+
+    private static final int WINDOW = 20;
+
+    @Test
+    void steadyLatencyUnderLoadGrowsTheLimitToTheMaximum() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter("test", 20, 4, 500);
+        windows(limiter, 1, 500, 300);
+        assertEquals(500, limiter.getLimit());
+    }
+
+    @Test
+    void anUnderusedLimitDoesNotGrow() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter("test", 20, 4, 500);
+        windows(limiter, 1, 5, 300);
+        assertEquals(20, limiter.getLimit());
+    }
+
+    @Test
+    void risingLatencyShrinksTheLimitTowardsTheMinimum() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter("test", 20, 4, 500);
+        windows(limiter, 1, 500, 300);
+        windows(limiter, 10, 500, 40);
+        assertTrue(limiter.getLimit() < 50, "limit " + limiter.getLimit());
+        assertTrue(limiter.getLimit() >= 4);
+    }
+
+    @Test
+    void theLimitRecoversOnceLatencyReturnsToNormal() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter("test", 20, 4, 500);
+        windows(limiter, 1, 500, 300);
+        windows(limiter, 10, 500, 40);
+        int shrunk = limiter.getLimit();
+        windows(limiter, 1, 500, 100);
+        assertTrue(limiter.getLimit() > 100, shrunk + " -> " + limiter.getLimit());
+    }
+
+    @Test
+    void dropsBackOffMultiplicativelyDownToTheMinimum() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter("test", 100, 4, 500);
+        limiter.tryAcquire().orElseThrow().dropped();
+        assertEquals(90, limiter.getLimit());
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire().orElseThrow().dropped();
+        }
+        assertEquals(4, limiter.getLimit());
+        assertEquals(101, limiter.getDropped());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void workBeyondTheLimitIsRejected() {
+        AdaptiveLimiter limiter = new AdaptiveLimiter("test", 5, 4, 500);
+        List<AdaptiveLimiter.Permit> permits = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            permits.add(limiter.tryAcquire().orElseThrow());
+        }
+        assertEquals(Optional.empty(), limiter.tryAcquire());
+        assertEquals(1, limiter.getRejected());
+
+        permits.remove(0).ignore();
+        assertTrue(limiter.tryAcquire().isPresent());
+    }
+
+    @Test
+    void invalidLimitsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveLimiter("test", 20, 0, 500));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveLimiter("test", 2, 4, 500));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveLimiter("test", 20, 30, 10));
+    }
+
+    // Feeds whole windows of samples with the given latency and concurrency
+    private static void windows(AdaptiveLimiter limiter, long rttMillis, int inFlight, int count) {
+        for (int i = 0; i < count * WINDOW; i++) {
+            limiter.onSample(rttMillis * 1_000_000, inFlight);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package org.limedb.node.admission;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionServiceTest {
+
+    private static final String PEER = "http://node-2:7001";
+
+    @Test
+    void peerNotFoundCountsAsASuccessfulSample() {
+        AdmissionService admission = new AdmissionService(new SimpleMeterRegistry(), true, 20, 4, 500, 1);
+        for (int i = 0; i < 20; i++) {
+            assertThrows(HttpClientErrorException.NotFound.class, () -> admission.forward(PEER, () -> {
+                throw HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", HttpHeaders.EMPTY, null, null);
+            }));
+        }
+        Map<?, ?> stats = peerStats(admission);
+        assertTrue(((Number) stats.get("longRttMs")).doubleValue() > 0);
+        assertEquals(0L, stats.get("dropped"));
+        assertEquals(0, stats.get("inFlight"));
+    }
+
+    @Test
+    void otherClientErrorsAreNotSampled() {
+        AdmissionService admission = new AdmissionService(new SimpleMeterRegistry(), true, 20, 4, 500, 1);
+        for (int i = 0; i < 20; i++) {
+            assertThrows(HttpClientErrorException.class, () -> admission.forward(PEER, () -> {
+                throw HttpClientErrorException.create(HttpStatus.BAD_REQUEST, "Bad Request", HttpHeaders.EMPTY, null, null);
+            }));
+        }
+        Map<?, ?> stats = peerStats(admission);
+        assertEquals(0.0, ((Number) stats.get("longRttMs")).doubleValue());
+        assertEquals(0L, stats.get("dropped"));
+        assertEquals(0, stats.get("inFlight"));
+    }
+
+    private static Map<?, ?> peerStats(AdmissionService admission) {
+        return (Map<?, ?>) ((Map<?, ?>) admission.getStats().get("peers")).get(PEER);
+    }
+}
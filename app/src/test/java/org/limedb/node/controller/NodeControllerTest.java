@@ -0,0 +1,56 @@
+package org.limedb.node.controller;
+
+import org.junit.jupiter.api.Test;
+import org.limedb.node.admission.OverloadedException;
+import org.limedb.node.dto.CounterRequest;
+import org.limedb.node.dto.EntryResponse;
+import org.limedb.node.dto.SetRequest;
+import org.limedb.node.service.NodeService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class NodeControllerTest {
+
+    private final NodeService service = mock(NodeService.class);
+    private final NodeController controller = new NodeController(service, null, null, null);
+
+    @Test
+    void decrementByLongMinValueIsABadRequest() {
+        ResponseEntity<?> response = controller.decrement(new CounterRequest("k", Long.MIN_VALUE));
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verify(service, never()).handleIncrement(anyString(), anyLong());
+    }
+
+    @Test
+    void decrementNegatesTheDelta() {
+        when(service.handleIncrement("k", -Long.MAX_VALUE))
+                .thenReturn(ResponseEntity.ok(new EntryResponse("k", "1", 2, "0")));
+        assertEquals(HttpStatus.OK, controller.decrement(new CounterRequest("k", Long.MAX_VALUE)).getStatusCode());
+    }
+
+    @Test
+    void incrementOfANonIntegerIsABadRequest() {
+        when(service.handleIncrement("k", 1)).thenThrow(new IllegalArgumentException("Value of 'k' is not an integer"));
+        ResponseEntity<?> response = controller.increment(new CounterRequest("k", null));
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("Error: Value of 'k' is not an integer", response.getBody());
+    }
+
+    @Test
+    void entryOperationFailuresAreReported() {
+        when(service.handleGetVersioned("k")).thenThrow(new RuntimeException("Failed to reach peer node"));
+        ResponseEntity<?> response = controller.getEntry("k");
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+        assertEquals("Error: Failed to reach peer node", response.getBody());
+
+        when(service.handleGetAndSet("k", "v")).thenThrow(new OverloadedException("Peer overloaded", 2));
+        response = controller.getAndSet(new SetRequest("k", "v"));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("2", response.getHeaders().getFirst("Retry-After"));
+    }
+}
@@ -0,0 +1,87 @@
+package org.limedb.node.hotkey;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CountMinSketchTest {
+
+    @Test
+    void neverUndercountsAndStaysWithinTheErrorBound() {
+        CountMinSketch sketch = new CountMinSketch(512, 4);
+        Random random = new Random(1);
+        Map<Long, Long> actual = new HashMap<>();
+        long total = 0;
+        for (int i = 0; i < 100_000; i++) {
+            // A few heavy hashes on top of a long uniform tail
+            long hash = random.nextInt(10) == 0 ? random.nextInt(5) : random.nextLong();
+            actual.merge(hash, 1L, Long::sum);
+            sketch.add(hash);
+            total++;
+        }
+
+        long bound = sketch.errorBound(total);
+        int outsideBound = 0;
+        for (Map.Entry<Long, Long> entry : actual.entrySet()) {
+            long estimate = sketch.estimate(entry.getKey());
+            assertTrue(estimate >= entry.getValue(), "undercount for " + entry.getKey());
+            if (estimate - entry.getValue() > bound) {
+                outsideBound++;
+            }
+        }
+        // The bound may fail with probability e^-4 per key, about 2%
+        assertTrue(outsideBound < actual.size() * 0.02, outsideBound + " of " + actual.size() + " outside the bound");
+    }
+
+    @Test
+    void addReturnsTheNewEstimate() {
+        CountMinSketch sketch = new CountMinSketch(64, 3);
+        assertEquals(0, sketch.estimate(42));
+        for (int i = 1; i <= 10; i++) {
+            assertEquals(i, sketch.add(42));
+        }
+        assertEquals(10, sketch.estimate(42));
+    }
+
+    @Test
+    void rowsHashIndependently() {
+        // Two hashes share every counter with probability 1/16 if the rows used the same
+        // hash function, and 1/16^4 if they are independent
+        Random random = new Random(2);
+        int fullCollisions = 0;
+        for (int i = 0; i < 2000; i++) {
+            CountMinSketch sketch = new CountMinSketch(16, 4);
+            sketch.add(random.nextLong());
+            if (sketch.estimate(random.nextLong()) > 0) {
+                fullCollisions++;
+            }
+        }
+        assertTrue(fullCollisions < 10, fullCollisions + " pairs collided in every row");
+    }
+
+    @Test
+    void halvingDecaysAllCounts() {
+        CountMinSketch sketch = new CountMinSketch(128, 4);
+        for (int i = 0; i < 9; i++) {
+            sketch.add(7);
+        }
+        sketch.add(8);
+        sketch.halve();
+        assertEquals(4, sketch.estimate(7));
+        sketch.halve();
+        sketch.halve();
+        sketch.halve();
+        assertEquals(0, sketch.estimate(7));
+        assertEquals(0, sketch.estimate(8));
+    }
+
+    @Test
+    void rejectsEmptyDimensions() {
+        assertThrows(IllegalArgumentException.class, () -> new CountMinSketch(0, 4));
+        assertThrows(IllegalArgumentException.class, () -> new CountMinSketch(16, 0));
+    }
+}
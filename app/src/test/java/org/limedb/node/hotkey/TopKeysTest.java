@@ -0,0 +1,91 @@
+package org.limedb.node.hotkey;
+
+import org.junit.jupiter.api.Test;
+import org.limedb.node.routing.KeyHasher;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TopKeysTest {
+
+    @Test
+    void ranksTheHeadOfAZipfStream() {
+        // Same shape as the service defaults: top 20 reported out of 4x as many candidates
+        CountMinSketch sketch = new CountMinSketch(2048, 4);
+        TopKeys topKeys = new TopKeys(80, sketch);
+
+        int distinctKeys = 200_000;
+        double[] cumulative = new double[distinctKeys];
+        double sum = 0;
+        for (int rank = 0; rank < distinctKeys; rank++) {
+            sum += 1 / Math.pow(rank + 1, 1.1);
+            cumulative[rank] = sum;
+        }
+
+        Random random = new Random(34);
+        Map<String, Long> actual = new HashMap<>();
+        int requests = 500_000;
+        for (int i = 0; i < requests; i++) {
+            int rank = Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+            String key = "key:" + (rank < 0 ? -rank - 1 : rank);
+            long hash = KeyHasher.hash(key);
+            actual.merge(key, 1L, Long::sum);
+            topKeys.offer(key, hash, sketch.add(hash));
+        }
+
+        List<String> expected = actual.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(20)
+                .map(Map.Entry::getKey)
+                .toList();
+        List<TopKeys.HotKey> reported = topKeys.top(20);
+        assertEquals(expected, reported.stream().map(TopKeys.HotKey::key).toList());
+
+        long bound = sketch.errorBound(requests);
+        for (TopKeys.HotKey hotKey : reported) {
+            long count = actual.get(hotKey.key());
+            assertTrue(hotKey.count() >= count && hotKey.count() - count <= bound,
+                    hotKey.key() + ": estimate " + hotKey.count() + ", actual " + count + ", bound " + bound);
+        }
+        assertEquals(80, topKeys.size());
+    }
+
+    @Test
+    void coldKeysAreEvictedOnceTheTableIsFull() {
+        CountMinSketch sketch = new CountMinSketch(1024, 4);
+        TopKeys topKeys = new TopKeys(3, sketch);
+        record("a", 5, sketch, topKeys);
+        record("b", 4, sketch, topKeys);
+        record("c", 3, sketch, topKeys);
+        record("d", 1, sketch, topKeys);
+        record("e", 6, sketch, topKeys);
+
+        assertEquals(3, topKeys.size());
+        assertEquals(List.of("e", "a", "b"), topKeys.top(10).stream().map(TopKeys.HotKey::key).toList());
+        assertEquals(List.of("e"), topKeys.top(1).stream().map(TopKeys.HotKey::key).toList());
+    }
+
+    @Test
+    void decayDropsKeysWhoseCountsReachZero() {
+        CountMinSketch sketch = new CountMinSketch(1024, 4);
+        TopKeys topKeys = new TopKeys(10, sketch);
+        record("hot", 8, sketch, topKeys);
+        record("cold", 1, sketch, topKeys);
+
+        sketch.halve();
+        topKeys.decay();
+
+        List<TopKeys.HotKey> top = topKeys.top(10);
+        assertEquals(1, top.size());
+        assertEquals("hot", top.get(0).key());
+        assertEquals(4, top.get(0).count());
+    }
+
+    private static void record(String key, int times, CountMinSketch sketch, TopKeys topKeys) {
+        long hash = KeyHasher.hash(key);
+        for (int i = 0; i < times; i++) {
+            topKeys.offer(key, hash, sketch.add(hash));
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package org.limedb.node.repair;
+
+import org.junit.jupiter.api.Test;
+import org.limedb.node.model.EntryChange;
+import org.limedb.node.routing.RoutingService;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeletionLogTest {
+
+    private static final String SELF = "http://localhost:7001";
+
+    @Test
+    void markersExpireAfterTheRetentionWindow() {
+        DeletionLog log = new DeletionLog(routing(), 1000, 100);
+        log.record("a", 10_000);
+        assertTrue(log.wasDeleted("a", 10_999));
+        assertFalse(log.wasDeleted("a", 11_000));
+        assertEquals(0, log.size());
+    }
+
+    @Test
+    void oldestMarkersAreDroppedWhenFull() {
+        DeletionLog log = new DeletionLog(routing(), 60_000, 2);
+        log.record("a", 1);
+        log.record("b", 2);
+        log.record("a", 3); // Deleted again, now the newest
+        log.record("c", 4);
+        assertFalse(log.wasDeleted("b", 5));
+        assertTrue(log.wasDeleted("a", 5));
+        assertTrue(log.wasDeleted("c", 5));
+    }
+
+    @Test
+    void localDeletesAreRecordedAndRewritesClearThem() {
+        DeletionLog log = new DeletionLog(routing(), 60_000, 100);
+        log.onEntryChanged("k", deleted("v"));
+        assertTrue(log.wasDeleted("k", System.currentTimeMillis()));
+        log.onEntryChanged("k", new EntryChange(null, null, "v2", 2, System.currentTimeMillis()));
+        assertFalse(log.wasDeleted("k", System.currentTimeMillis()));
+    }
+
+    @Test
+    void deletesOfKeysOwnedElsewhereAreNotRecorded() {
+        RoutingService routing = new RoutingService("consistent-hash", 3, 65537, "", 4096,
+                List.of("http://localhost:7002"), 7001);
+        routing.initializeRing();
+        DeletionLog log = new DeletionLog(routing, 60_000, 100);
+        log.onEntryChanged("k", deleted("v"));
+        assertEquals(0, log.size());
+    }
+
+    private static EntryChange deleted(String value) {
+        return new EntryChange(value, null, null, 0, System.currentTimeMillis());
+    }
+
+    // Single-node ring: this node owns every key
+    private static RoutingService routing() {
+        RoutingService routing = new RoutingService("consistent-hash", 3, 65537, "", 4096, List.of(SELF), 7001);
+        routing.initializeRing();
+        return routing;
+    }
+}
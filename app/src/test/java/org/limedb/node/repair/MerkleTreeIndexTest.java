@@ -0,0 +1,67 @@
+package org.limedb.node.repair;
+
+import org.junit.jupiter.api.Test;
+import org.limedb.node.model.Entry;
+import org.limedb.node.model.EntryChange;
+import org.limedb.node.repository.NodeRepository;
+import org.limedb.node.routing.RoutingService;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class MerkleTreeIndexTest {
+
+    private static final String SELF = "http://localhost:7001";
+
+    @Test
+    void overwritingAnExpiredRowMatchesARebuild() {
+        long now = System.currentTimeMillis();
+        MerkleTreeIndex index = built(entry("k", "old", now - 1000), entry("other", "x", null));
+        // The expired row is still stored, so the write reports it as the value it replaced
+        index.onEntryChanged("k", new EntryChange("old", now - 1000, "new", 7, now));
+
+        assertEquals(rootHash(built(entry("k", "new", null), entry("other", "x", null))), rootHash(index));
+    }
+
+    @Test
+    void removingAnExpiredRowMatchesARebuild() {
+        long now = System.currentTimeMillis();
+        MerkleTreeIndex index = built(entry("k", "old", now - 1000), entry("other", "x", null));
+        index.onEntryChanged("k", new EntryChange("old", now - 1000, null, 0, now));
+
+        assertEquals(rootHash(built(entry("other", "x", null))), rootHash(index));
+    }
+
+    private static MerkleTreeIndex built(Entry... rows) {
+        NodeRepository repository = mock(NodeRepository.class);
+        when(repository.scan(anyLong(), anyInt())).thenReturn(List.of(rows), List.of());
+        MerkleTreeIndex index = new MerkleTreeIndex(routing(), repository, 6);
+        index.rebuild();
+        return index;
+    }
+
+    private static long rootHash(MerkleTreeIndex index) {
+        MerkleTree tree = index.getTrees().get(SELF);
+        return tree == null ? 0 : tree.getRootHash();
+    }
+
+    private static Entry entry(String key, String value, Long expiresAt) {
+        Entry entry = new Entry();
+        entry.setId((long) key.hashCode());
+        entry.setKey(key);
+        entry.setValue(value);
+        entry.setExpiresAt(expiresAt);
+        return entry;
+    }
+
+    // Single-node ring: this node owns every key
+    private static RoutingService routing() {
+        RoutingService routing = new RoutingService("consistent-hash", 3, 65537, "", 4096, List.of(SELF), 7001);
+        routing.initializeRing();
+        return routing;
+    }
+}
@@ -0,0 +1,104 @@
+package org.limedb.node.repair;
+
+import org.junit.jupiter.api.Test;
+import org.limedb.node.routing.HashRange;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MerkleTreeTest {
+
+    private static final HashRange RING = new HashRange(Long.MIN_VALUE, Long.MAX_VALUE);
+
+    @Test
+    void subtreeRangesSplitTheirParentInHalf() {
+        MerkleTree tree = new MerkleTree(new HashRange(Long.MAX_VALUE - 9999, Long.MIN_VALUE + 10000), 4);
+        assertEquals(tree.getRange(), tree.subtreeRange(1));
+        for (int index = 1; index < 16; index++) {
+            HashRange parent = tree.subtreeRange(index);
+            HashRange left = tree.subtreeRange(2 * index);
+            HashRange right = tree.subtreeRange(2 * index + 1);
+            assertEquals(parent.start(), left.start());
+            assertEquals(left.end() + 1, right.start());
+            assertEquals(parent.end(), right.end());
+        }
+    }
+
+    @Test
+    void subtreeRangeOfALeafIsItsLeafRange() {
+        MerkleTree tree = new MerkleTree(RING, 3);
+        assertFalse(tree.isLeaf(7));
+        for (int index = 8; index < 16; index++) {
+            assertTrue(tree.isLeaf(index));
+            assertEquals(tree.leafRange(index), tree.subtreeRange(index));
+        }
+    }
+
+    @Test
+    void rootDependsOnContentNotOnWriteOrder() {
+        MerkleTree forward = new MerkleTree(RING, 6);
+        MerkleTree backward = new MerkleTree(RING, 6);
+        long[] keyHashes = new Random(7).longs(200).toArray();
+        for (long keyHash : keyHashes) {
+            forward.update(keyHash, 0, MerkleTree.digest(keyHash, 1));
+        }
+        for (int i = keyHashes.length - 1; i >= 0; i--) {
+            backward.update(keyHashes[i], 0, MerkleTree.digest(keyHashes[i], 1));
+        }
+        assertNotEquals(0, forward.getRootHash());
+        assertEquals(forward.getRootHash(), backward.getRootHash());
+    }
+
+    @Test
+    void deletingEverythingEmptiesTheTree() {
+        MerkleTree tree = new MerkleTree(RING, 5);
+        long[] keyHashes = new Random(11).longs(50).toArray();
+        for (long keyHash : keyHashes) {
+            tree.update(keyHash, 0, MerkleTree.digest(keyHash, 1));
+        }
+        for (long keyHash : keyHashes) {
+            tree.update(keyHash, MerkleTree.digest(keyHash, 1), MerkleTree.digest(keyHash, 2));
+        }
+        for (long keyHash : keyHashes) {
+            tree.update(keyHash, MerkleTree.digest(keyHash, 2), 0);
+        }
+        assertEquals(0, tree.getRootHash());
+    }
+
+    @Test
+    void aChangedValueOnlyChangesItsOwnPath() {
+        MerkleTree local = new MerkleTree(RING, 3);
+        MerkleTree remote = new MerkleTree(RING, 3);
+        long[] keyHashes = new Random(3).longs(64).toArray();
+        for (long keyHash : keyHashes) {
+            local.update(keyHash, 0, MerkleTree.digest(keyHash, 1));
+            remote.update(keyHash, 0, MerkleTree.digest(keyHash, 1));
+        }
+        long changed = keyHashes[0];
+        remote.update(changed, MerkleTree.digest(changed, 1), MerkleTree.digest(changed, 2));
+
+        int[] all = new int[15];
+        for (int i = 0; i < all.length; i++) {
+            all[i] = i + 1;
+        }
+        long[] localHashes = local.getHashes(all);
+        long[] remoteHashes = remote.getHashes(all);
+        int leaf = 8 + RING.bucketOf(changed, 8);
+        for (int index = 1; index <= 15; index++) {
+            boolean onPath = false;
+            for (int node = leaf; node >= 1; node >>= 1) {
+                onPath |= node == index;
+            }
+            assertEquals(onPath, localHashes[index - 1] != remoteHashes[index - 1], "node " + index);
+        }
+        assertTrue(remote.leafRange(leaf).contains(changed));
+    }
+
+    @Test
+    void rejectsIndicesOutsideTheTree() {
+        MerkleTree tree = new MerkleTree(RING, 2);
+        assertThrows(IllegalArgumentException.class, () -> tree.getHashes(new int[] {0}));
+        assertThrows(IllegalArgumentException.class, () -> tree.getHashes(new int[] {8}));
+    }
+}
@@ -0,0 +1,213 @@
+package org.limedb.node.repository.jpa;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.Test;
+import org.limedb.node.model.EntryChange;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Primary;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Runs against a real PostgreSQL: each write commits on its own, as it does in the service
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({NodeRepositoryJpaImpl.class, NodeRepositoryJpaImplTest.EmbeddedDatabase.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class NodeRepositoryJpaImplTest {
+
+    private static final int WRITERS = 8;
+
+    @Autowired
+    private NodeRepositoryJpaImpl repository;
+
+    @TestConfiguration
+    static class EmbeddedDatabase {
+        @Bean(destroyMethod = "close")
+        EmbeddedPostgres embeddedPostgres() throws Exception {
+            return EmbeddedPostgres.start();
+        }
+
+        @Bean
+        @Primary
+        DataSource dataSource(EmbeddedPostgres postgres) {
+            return postgres.getPostgresDatabase();
+        }
+    }
+
+    @Test
+    void concurrentFirstSetsEachSeeTheValueTheyReplaced() throws Exception {
+        for (int round = 0; round < 20; round++) {
+            String key = "first-set-" + round;
+            List<Optional<String>> previous = concurrently(i -> Optional.ofNullable(repository.set(key, "v" + i, null).previousValue()));
+
+            // Exactly one writer created the key; every other one replaced some other writer's value
+            assertEquals(1, previous.stream().filter(Optional::isEmpty).count(), key);
+            Set<String> replaced = new HashSet<>();
+            for (int i = 0; i < WRITERS; i++) {
+                previous.get(i).ifPresent(value -> assertTrue(replaced.add(value), key + ": " + value + " replaced twice"));
+                assertNotEquals(Optional.of("v" + i), previous.get(i));
+            }
+            // The writes form a single chain, so the last value is the one nobody replaced
+            Set<String> written = new HashSet<>();
+            for (int i = 0; i < WRITERS; i++) {
+                written.add("v" + i);
+            }
+            written.removeAll(replaced);
+            assertEquals(Set.of(repository.get(key).orElseThrow()), written);
+        }
+    }
+
+    @Test
+    void concurrentIncrementsAreNotLost() throws Exception {
+        List<List<Long>> versions = concurrently(i -> {
+            List<Long> seen = new ArrayList<>();
+            for (int n = 0; n < 50; n++) {
+                seen.add(repository.increment("counter", 1).version());
+            }
+            return seen;
+        });
+
+        assertEquals(Optional.of(String.valueOf(WRITERS * 50)), repository.get("counter"));
+        Set<Long> distinct = new HashSet<>();
+        versions.forEach(distinct::addAll);
+        assertEquals(WRITERS * 50, distinct.size());
+    }
+
+    @Test
+    void concurrentCompareAndSetsOnOneVersionHaveOneWinner() throws Exception {
+        long version = repository.compareAndSet("cas", 0, "initial").orElseThrow().version();
+        List<Optional<EntryChange>> results = concurrently(i -> repository.compareAndSet("cas", version, "v" + i));
+
+        List<EntryChange> winners = results.stream().flatMap(Optional::stream).toList();
+        assertEquals(1, winners.size());
+        assertEquals("initial", winners.get(0).previousValue());
+        assertEquals(Optional.of(winners.get(0).value()), repository.get("cas"));
+    }
+
+    @Test
+    void concurrentCreatesThroughCompareAndSetHaveOneWinner() throws Exception {
+        List<Optional<EntryChange>> results = concurrently(i -> repository.compareAndSet("create", 0, "v" + i));
+        assertEquals(1, results.stream().filter(Optional::isPresent).count());
+    }
+
+    @Test
+    void compareAndSetRejectsAStaleVersion() {
+        EntryChange created = repository.compareAndSet("stale", 0, "a").orElseThrow();
+        EntryChange updated = repository.compareAndSet("stale", created.version(), "b").orElseThrow();
+        assertTrue(updated.version() > created.version());
+        assertTrue(repository.compareAndSet("stale", created.version(), "c").isEmpty());
+        assertTrue(repository.compareAndSet("stale", 0, "c").isEmpty());
+        assertEquals(Optional.of("b"), repository.get("stale"));
+    }
+
+    @Test
+    void aRecreatedKeyNeverReusesAVersion() {
+        long first = repository.compareAndSet("recreated", 0, "a").orElseThrow().version();
+        repository.delete("recreated");
+        long second = repository.compareAndSet("recreated", 0, "a").orElseThrow().version();
+        assertTrue(second > first);
+        assertTrue(repository.compareAndSet("recreated", first, "stale").isEmpty());
+    }
+
+    @Test
+    void getAndSetReturnsThePreviousValue() {
+        assertNull(repository.getAndSet("getset", "a").previousValue());
+        EntryChange change = repository.getAndSet("getset", "b");
+        assertEquals("a", change.previousValue());
+        assertEquals("b", change.value());
+    }
+
+    @Test
+    void expiredKeysCountAsAbsentButWritesReportTheStoredRow() {
+        long past = System.currentTimeMillis() - 1000;
+        repository.set("expired-set", "old", past);
+        EntryChange set = repository.set("expired-set", "new", null);
+        assertEquals("old", set.previousValue());
+        assertEquals(past, set.previousExpiresAt());
+        assertNull(set.livePreviousValue());
+
+        repository.set("expired-incr", "41", past);
+        EntryChange incremented = repository.increment("expired-incr", 1);
+        assertEquals("41", incremented.previousValue());
+        assertFalse(incremented.previousLive());
+        assertEquals("1", incremented.value());
+        assertEquals("2", repository.increment("expired-incr", 1).value());
+
+        repository.set("expired-insert", "old", past);
+        EntryChange inserted = repository.insertIfAbsent("expired-insert", "new", null).orElseThrow();
+        assertEquals("old", inserted.previousValue());
+        assertFalse(inserted.previousLive());
+        assertTrue(repository.insertIfAbsent("expired-insert", "newer", null).isEmpty());
+        assertEquals(Optional.of("new"), repository.get("expired-insert"));
+
+        repository.set("expired-delete", "old", past);
+        EntryChange deleted = repository.delete("expired-delete").orElseThrow();
+        assertEquals("old", deleted.previousValue());
+        assertFalse(deleted.previousLive());
+        assertNull(deleted.value());
+    }
+
+    @Test
+    void liveRowsAreReportedLive() {
+        EntryChange created = repository.set("live", "a", null);
+        assertNull(created.previousValue());
+        assertFalse(created.previousLive());
+
+        long future = System.currentTimeMillis() + 60_000;
+        repository.set("live", "b", future);
+        EntryChange replaced = repository.getAndSet("live", "c");
+        assertEquals("b", replaced.livePreviousValue());
+        assertEquals(future, replaced.previousExpiresAt());
+        assertTrue(repository.delete("live").orElseThrow().previousLive());
+        assertTrue(repository.delete("live").isEmpty());
+    }
+
+    @Test
+    void incrementRejectsNonIntegersAndOverflow() {
+        repository.set("text", "abc", null);
+        assertThrows(IllegalArgumentException.class, () -> repository.increment("text", 1));
+
+        repository.set("max", String.valueOf(Long.MAX_VALUE), null);
+        assertThrows(IllegalArgumentException.class, () -> repository.increment("max", 1));
+        assertEquals(Optional.of(String.valueOf(Long.MAX_VALUE)), repository.get("max"));
+    }
+
+    // Runs one task per writer, all released at once, and returns the results in writer order
+    private static <T> List<T> concurrently(Writer<T> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<T>> futures = new ArrayList<>();
+            for (int i = 0; i < WRITERS; i++) {
+                int writer = i;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return task.run(writer);
+                }));
+            }
+            start.countDown();
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get(30, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private interface Writer<T> {
+        T run(int writer) throws Exception;
+    }
+}
@@ -0,0 +1,66 @@
+package org.limedb.node.resp;
+
+import org.junit.jupiter.api.Test;
+import org.limedb.node.dto.EntryResponse;
+import org.limedb.node.service.NodeService;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class RespCommandHandlerTest {
+
+    private final NodeService service = mock(NodeService.class);
+    private final RespCommandHandler handler = new RespCommandHandler(service);
+
+    @Test
+    void mgetRepliesWithAllValuesInOrder() {
+        when(service.handleGet("a")).thenReturn(ResponseEntity.ok("1"));
+        when(service.handleGet("b")).thenReturn(ResponseEntity.notFound().build());
+        when(service.handleGet("c")).thenReturn(ResponseEntity.ok("3"));
+        assertEquals("*3\r\n$1\r\n1\r\n$-1\r\n$1\r\n3\r\n", execute("MGET", "a", "b", "c"));
+    }
+
+    @Test
+    void mgetFailureRepliesWithASingleError() {
+        when(service.handleGet("a")).thenReturn(ResponseEntity.ok("1"));
+        when(service.handleGet("b")).thenThrow(new RuntimeException("Failed to reach peer node"));
+        when(service.handleGet("c")).thenReturn(ResponseEntity.ok("3"));
+        // No array header ahead of the error, so the client stays in step with the stream
+        assertEquals("-ERR Failed to reach peer node\r\n", execute("MGET", "a", "b", "c"));
+    }
+
+    @Test
+    void repliesToPipelinedCommandsStayInOrder() {
+        when(service.handleGet("a")).thenReturn(ResponseEntity.ok("1"));
+        when(service.handleGet("b")).thenThrow(new RuntimeException("Failed to reach peer node"));
+        RespReply reply = new RespReply();
+        handler.execute(List.of("MGET", "a", "b"), reply);
+        handler.execute(List.of("GET", "a"), reply);
+        assertEquals("-ERR Failed to reach peer node\r\n$1\r\n1\r\n", new String(reply.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void decrbyLongMinValueIsAnError() {
+        assertEquals("-ERR value is not an integer or out of range\r\n",
+                execute("DECRBY", "k", String.valueOf(Long.MIN_VALUE)));
+        verify(service, never()).handleIncrement(anyString(), anyLong());
+    }
+
+    @Test
+    void decrbyNegatesTheDelta() {
+        when(service.handleIncrement("k", -5)).thenReturn(ResponseEntity.ok(new EntryResponse("k", "-5", 1, null)));
+        assertEquals(":-5\r\n", execute("DECRBY", "k", "5"));
+    }
+
+    private String execute(String... command) {
+        RespReply reply = new RespReply();
+        handler.execute(List.of(command), reply);
+        return new String(reply.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,164 @@
+package org.limedb.node.resp;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RespParserTest {
+
+    @Test
+    void parsesAMultiBulkCommand() {
+        RespParser parser = new RespParser();
+        append(parser, "*3\r\n$3\r\nSET\r\n$3\r\nkey\r\n$5\r\nvalue\r\n");
+        assertEquals(List.of("SET", "key", "value"), parser.next());
+        assertNull(parser.next());
+    }
+
+    @Test
+    void waitsForTheRestOfACommandSplitAtAnyByte() {
+        byte[] request = "*2\r\n$3\r\nGET\r\n$10\r\nuser:12345\r\n".getBytes(StandardCharsets.UTF_8);
+        for (int split = 1; split < request.length; split++) {
+            RespParser parser = new RespParser();
+            parser.append(ByteBuffer.wrap(request, 0, split));
+            assertNull(parser.next(), "complete after " + split + " bytes");
+            parser.append(ByteBuffer.wrap(request, split, request.length - split));
+            assertEquals(List.of("GET", "user:12345"), parser.next(), "split at " + split);
+        }
+    }
+
+    @Test
+    void feedsOneByteAtATime() {
+        RespParser parser = new RespParser();
+        List<List<String>> commands = new ArrayList<>();
+        for (byte b : "*1\r\n$4\r\nPING\r\nPING\r\n*2\r\n$4\r\nECHO\r\n$2\r\nhi\r\n".getBytes(StandardCharsets.UTF_8)) {
+            parser.append(ByteBuffer.wrap(new byte[] {b}));
+            List<String> command;
+            while ((command = parser.next()) != null) {
+                commands.add(command);
+            }
+        }
+        assertEquals(List.of(List.of("PING"), List.of("PING"), List.of("ECHO", "hi")), commands);
+    }
+
+    @Test
+    void returnsPipelinedCommandsInOrder() {
+        RespParser parser = new RespParser();
+        StringBuilder pipeline = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            pipeline.append("*2\r\n$4\r\nINCR\r\n$").append(("k" + i).length()).append("\r\nk").append(i).append("\r\n");
+        }
+        // The last command is incomplete and must stay buffered
+        pipeline.append("*2\r\n$3\r\nGET\r\n$2\r\nk");
+        append(parser, pipeline.toString());
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(List.of("INCR", "k" + i), parser.next());
+        }
+        assertNull(parser.next());
+        append(parser, "9\r\n");
+        assertEquals(List.of("GET", "k9"), parser.next());
+    }
+
+    @Test
+    void keepsCrlfAndMultiByteCharactersInsideBulkStrings() {
+        RespParser parser = new RespParser();
+        String value = "line1\r\nline2 ✓";
+        int length = value.getBytes(StandardCharsets.UTF_8).length;
+        append(parser, "*3\r\n$3\r\nSET\r\n$1\r\nk\r\n$" + length + "\r\n" + value + "\r\n");
+        assertEquals(List.of("SET", "k", value), parser.next());
+    }
+
+    @Test
+    void growsTheBufferForLargeValues() {
+        RespParser parser = new RespParser();
+        String value = "x".repeat(100_000);
+        byte[] request = ("*3\r\n$3\r\nSET\r\n$1\r\nk\r\n$" + value.length() + "\r\n" + value + "\r\n")
+                .getBytes(StandardCharsets.UTF_8);
+        for (int offset = 0; offset < request.length; offset += 4096) {
+            parser.append(ByteBuffer.wrap(request, offset, Math.min(4096, request.length - offset)));
+        }
+        assertEquals(List.of("SET", "k", value), parser.next());
+    }
+
+    @Test
+    void consumedArgumentsAreReleasedBeforeTheCommandCompletes() {
+        RespParser parser = new RespParser();
+        int initialCapacity = parser.capacity();
+        StringBuilder request = new StringBuilder("*2001\r\n$4\r\nMSET\r\n");
+        String value = "v".repeat(100);
+        for (int i = 0; i < 2000; i++) {
+            request.append("$100\r\n").append(value).append("\r\n");
+        }
+        byte[] bytes = request.toString().getBytes(StandardCharsets.UTF_8);
+        for (int offset = 0; offset < bytes.length; offset += 4096) {
+            parser.append(ByteBuffer.wrap(bytes, offset, Math.min(4096, bytes.length - offset)));
+            List<String> command = parser.next();
+            // Arguments are taken out as they arrive, so a 200 KB command never needs a 200 KB buffer
+            assertEquals(initialCapacity, parser.capacity(), "after " + offset + " bytes");
+            if (offset + 4096 < bytes.length) {
+                assertNull(command);
+            } else {
+                assertEquals(2001, command.size());
+            }
+        }
+    }
+
+    @Test
+    void shrinksTheBufferOnceALargeValueIsConsumed() {
+        RespParser parser = new RespParser();
+        int initialCapacity = parser.capacity();
+        String value = "x".repeat(100_000);
+        append(parser, "*3\r\n$3\r\nSET\r\n$1\r\nk\r\n$" + value.length() + "\r\n" + value + "\r\n");
+        assertTrue(parser.capacity() > initialCapacity);
+        assertEquals(List.of("SET", "k", value), parser.next());
+        assertNull(parser.next());
+        assertEquals(initialCapacity, parser.capacity());
+    }
+
+    @Test
+    void aLargeDeclaredCountWaitsForItsArguments() {
+        RespParser parser = new RespParser();
+        append(parser, "*1048576\r\n$4\r\nMSET\r\n");
+        assertNull(parser.next());
+        append(parser, "$1\r\nk\r\n");
+        assertNull(parser.next());
+    }
+
+    @Test
+    void parsesInlineCommandsAndSkipsEmptyOnes() {
+        RespParser parser = new RespParser();
+        append(parser, "\r\n*0\r\n  SET   k  v \r\nPING\n");
+        assertEquals(List.of("SET", "k", "v"), parser.next());
+        assertEquals(List.of("PING"), parser.next());
+        assertNull(parser.next());
+    }
+
+    @Test
+    void rejectsMalformedRequests() {
+        assertThrows(RespProtocolException.class, () -> parse("*1\r\n:3\r\nGET\r\n"));
+        assertThrows(RespProtocolException.class, () -> parse("*x\r\n"));
+        assertThrows(RespProtocolException.class, () -> parse("*1\r\n$-1\r\n"));
+        assertThrows(RespProtocolException.class, () -> parse("*1\r\n$\r\n"));
+        assertThrows(RespProtocolException.class, () -> parse("*1\r\n$999999999999\r\n"));
+    }
+
+    @Test
+    void rejectsOversizedInlineRequests() {
+        assertThrows(RespProtocolException.class, () -> parse("A".repeat(64 * 1024 + 1)));
+    }
+
+    private static List<String> parse(String request) {
+        RespParser parser = new RespParser();
+        append(parser, request);
+        return parser.next();
+    }
+
+    private static void append(RespParser parser, String data) {
+        parser.append(ByteBuffer.wrap(data.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,74 @@
+package org.limedb.node.resp;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.DataInputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class RespServerTest {
+
+    private static final int REPLY_BYTES = 1024 * 1024;
+    private static final int COMMANDS = 200;
+
+    private RespServer server;
+
+    @AfterEach
+    void stop() {
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    @Test
+    void aClientThatDoesNotReadIsPausedAndResumesAsItDrains() throws Exception {
+        String value = "x".repeat(REPLY_BYTES);
+        AtomicInteger executed = new AtomicInteger();
+        RespCommandHandler handler = mock(RespCommandHandler.class);
+        when(handler.execute(any(), any())).thenAnswer(invocation -> {
+            executed.incrementAndGet();
+            invocation.<RespReply>getArgument(1).bulk(value);
+            return true;
+        });
+
+        int port;
+        try (ServerSocket probe = new ServerSocket(0)) {
+            port = probe.getLocalPort();
+        }
+        server = new RespServer(handler, true, port);
+        server.start();
+
+        try (Socket client = new Socket("localhost", port)) {
+            OutputStream out = client.getOutputStream();
+            out.write("GET k\r\n".repeat(COMMANDS).getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+
+            // Wait for execution to stall while nothing is read
+            int last;
+            do {
+                last = executed.get();
+                Thread.sleep(500);
+            } while (executed.get() != last);
+            // Socket buffers absorb some replies on top of the server-side limit, but far from all of them
+            assertTrue(last < COMMANDS, "executed " + last + " of " + COMMANDS + " without the client reading");
+            assertTrue((long) last * REPLY_BYTES >= RespServer.MAX_OUTPUT_BYTES, "paused early at " + last);
+
+            DataInputStream in = new DataInputStream(client.getInputStream());
+            String header = "$" + REPLY_BYTES + "\r\n";
+            byte[] reply = new byte[header.length() + REPLY_BYTES + 2];
+            for (int i = 0; i < COMMANDS; i++) {
+                in.readFully(reply);
+                assertEquals(header, new String(reply, 0, header.length(), StandardCharsets.US_ASCII), "reply " + i);
+            }
+            assertEquals(COMMANDS, executed.get());
+        }
+    }
+}
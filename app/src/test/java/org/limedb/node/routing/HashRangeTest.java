@@ -0,0 +1,75 @@
+package org.limedb.node.routing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashRangeTest {
+
+    @Test
+    void containsHandlesPlainAndWrappingRanges() {
+        HashRange plain = new HashRange(-10, 10);
+        assertTrue(plain.contains(-10));
+        assertTrue(plain.contains(10));
+        assertFalse(plain.contains(11));
+        assertFalse(plain.contains(Long.MIN_VALUE));
+
+        HashRange wrapping = new HashRange(Long.MAX_VALUE - 5, Long.MIN_VALUE + 5);
+        assertTrue(wrapping.wraps());
+        assertTrue(wrapping.contains(Long.MAX_VALUE));
+        assertTrue(wrapping.contains(Long.MIN_VALUE));
+        assertTrue(wrapping.contains(Long.MIN_VALUE + 5));
+        assertFalse(wrapping.contains(0));
+    }
+
+    @Test
+    void wrappingRangeSplitsAtTheBoundary() {
+        HashRange wrapping = new HashRange(100, -100);
+        assertEquals(List.of(new HashRange(100, Long.MAX_VALUE), new HashRange(Long.MIN_VALUE, -100)),
+                wrapping.segments());
+        assertEquals(List.of(new HashRange(-100, 100)), new HashRange(-100, 100).segments());
+    }
+
+    @Test
+    void bucketsTileTheFullRing() {
+        assertBucketsTile(new HashRange(Long.MIN_VALUE, Long.MAX_VALUE), 16);
+    }
+
+    @Test
+    void bucketsTileAWrappingRange() {
+        assertBucketsTile(new HashRange(Long.MAX_VALUE - 999, Long.MIN_VALUE + 1000), 8);
+    }
+
+    @Test
+    void bucketsTileARangeThatDoesNotDivideEvenly() {
+        // 10 positions in 4 buckets: the last bucket is shorter
+        assertBucketsTile(new HashRange(0, 9), 4);
+        assertEquals(new HashRange(9, 9), new HashRange(0, 9).bucket(3, 4));
+    }
+
+    @Test
+    void bucketOfMatchesBucketForEveryPosition() {
+        HashRange range = new HashRange(-50, 49);
+        for (long hash = -50; hash <= 49; hash++) {
+            int index = range.bucketOf(hash, 8);
+            assertTrue(range.bucket(index, 8).contains(hash), "hash " + hash + " not in bucket " + index);
+        }
+    }
+
+    // Buckets must be contiguous, cover the range exactly and agree with bucketOf at their edges
+    private static void assertBucketsTile(HashRange range, int buckets) {
+        assertEquals(range.start(), range.bucket(0, buckets).start());
+        assertEquals(range.end(), range.bucket(buckets - 1, buckets).end());
+        for (int i = 0; i < buckets; i++) {
+            HashRange bucket = range.bucket(i, buckets);
+            assertTrue(range.contains(bucket.start()) && range.contains(bucket.end()));
+            assertEquals(i, range.bucketOf(bucket.start(), buckets));
+            assertEquals(i, range.bucketOf(bucket.end(), buckets));
+            if (i > 0) {
+                assertEquals(range.bucket(i - 1, buckets).end() + 1, bucket.start());
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package org.limedb.node.routing;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoutingStrategyTest {
+
+    private static final int KEYS = 50_000;
+    private static final List<String> NODES = List.of(
+            "http://node-1:7001", "http://node-2:7001", "http://node-3:7001", "http://node-4:7001", "http://node-5:7001");
+    private static final String NEW_NODE = "http://node-6:7001";
+
+    @ParameterizedTest
+    @ValueSource(strings = {"consistent-hash", "jump", "rendezvous", "maglev"})
+    void spreadsKeysEvenly(String name) {
+        RoutingStrategy strategy = create(name, NODES);
+        Map<String, Integer> counts = new HashMap<>();
+        for (String owner : owners(strategy)) {
+            counts.merge(owner, 1, Integer::sum);
+        }
+        assertEquals(new HashSet<>(NODES), counts.keySet());
+        double maxOverMean = Collections.max(counts.values()) / ((double) KEYS / NODES.size());
+        // 150 virtual nodes leave a few percent of skew; the others are balanced up to sampling noise
+        assertTrue(maxOverMean < (name.equals("consistent-hash") ? 1.12 : 1.04), name + ": max/mean " + maxOverMean);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"consistent-hash", "jump", "rendezvous", "maglev"})
+    void aJoiningNodeTakesItsShareFromTheOthers(String name) {
+        RoutingStrategy strategy = create(name, NODES);
+        String[] before = owners(strategy);
+        strategy.addNode(NEW_NODE);
+        String[] after = owners(strategy);
+
+        int toNewNode = 0;
+        int elsewhere = 0;
+        for (int i = 0; i < KEYS; i++) {
+            if (!before[i].equals(after[i])) {
+                if (after[i].equals(NEW_NODE)) {
+                    toNewNode++;
+                } else {
+                    elsewhere++;
+                }
+            }
+        }
+        double share = (double) toNewNode / KEYS;
+        assertEquals(1.0 / (NODES.size() + 1), share, name.equals("consistent-hash") ? 0.05 : 0.01, name);
+        // Maglev's table refill may reassign a small fraction of slots between the other nodes
+        assertTrue(elsewhere <= (name.equals("maglev") ? KEYS * 0.03 : 0), name + ": " + elsewhere + " keys moved elsewhere");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"consistent-hash", "rendezvous", "maglev"})
+    void aLeavingNodeOnlyGivesUpItsOwnKeys(String name) {
+        RoutingStrategy strategy = create(name, NODES);
+        String leaving = NODES.get(2);
+        String[] before = owners(strategy);
+        strategy.removeNode(leaving);
+        String[] after = owners(strategy);
+
+        int elsewhere = 0;
+        for (int i = 0; i < KEYS; i++) {
+            assertNotEquals(leaving, after[i]);
+            if (!before[i].equals(leaving) && !before[i].equals(after[i])) {
+                elsewhere++;
+            }
+        }
+        assertTrue(elsewhere <= (name.equals("maglev") ? KEYS * 0.03 : 0), name + ": " + elsewhere + " keys moved elsewhere");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"consistent-hash", "rendezvous", "maglev"})
+    void mappingDoesNotDependOnMembershipOrder(String name) {
+        List<String> reversed = new ArrayList<>(NODES);
+        Collections.reverse(reversed);
+        assertArrayEquals(owners(create(name, NODES)), owners(create(name, reversed)), name);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"consistent-hash", "maglev"})
+    void rangesTileTheRingAndMatchLookups(String name) {
+        RoutingStrategy strategy = create(name, NODES);
+        NavigableMap<Long, String> ownerByEnd = new TreeMap<>();
+        long covered = 0;
+        int count = 0;
+        for (Map.Entry<String, List<Map<String, Object>>> node : strategy.getNodeRanges().entrySet()) {
+            for (Map<String, Object> range : node.getValue()) {
+                covered += (Long) range.get("size");
+                ownerByEnd.put((Long) range.get("end"), node.getKey());
+                count++;
+            }
+        }
+        assertEquals(0, covered, "range sizes must add up to 2^64"); // wraps to 0
+        assertEquals(count, strategy.getRangeCount());
+
+        for (int i = 0; i < KEYS; i += 7) {
+            String key = "key_" + i;
+            Map.Entry<Long, String> range = ownerByEnd.ceilingEntry(KeyHasher.hash(key));
+            String owner = (range != null ? range : ownerByEnd.firstEntry()).getValue();
+            assertEquals(strategy.getNode(key), owner, key);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"jump", "rendezvous"})
+    void strategiesWithoutRangesReportNone(String name) {
+        RoutingStrategy strategy = create(name, NODES);
+        assertTrue(strategy.getNodeRanges().isEmpty());
+        assertEquals(0, strategy.getRangeCount());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"consistent-hash", "jump", "rendezvous", "maglev"})
+    void emptyMembershipRoutesNowhere(String name) {
+        RoutingStrategy strategy = create(name, List.of());
+        assertNull(strategy.getNode("key"));
+        assertEquals(0, strategy.getNodeCount());
+    }
+
+    static RoutingStrategy create(String name, List<String> nodes) {
+        RoutingStrategy strategy = RoutingStrategy.create(name, 150, 65537);
+        strategy.initializeRing(nodes);
+        return strategy;
+    }
+
+    static String[] owners(RoutingStrategy strategy) {
+        String[] owners = new String[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            owners[i] = strategy.getNode("key_" + i);
+        }
+        return owners;
+    }
+}
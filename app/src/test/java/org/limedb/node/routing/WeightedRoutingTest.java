@@ -0,0 +1,141 @@
+package org.limedb.node.routing;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.limedb.node.routing.RoutingStrategyTest.create;
+import static org.limedb.node.routing.RoutingStrategyTest.owners;
+
+class WeightedRoutingTest {
+
+    private static final List<String> NODES = List.of(
+            "http://node-1:7001", "http://node-2:7001", "http://node-3:7001", "http://node-4:7001", "http://node-5:7001");
+
+    @ParameterizedTest
+    @ValueSource(strings = {"consistent-hash", "jump", "rendezvous", "maglev"})
+    void sharesFollowWeights(String name) {
+        RoutingStrategy strategy = RoutingStrategy.create(name, 150, 65537);
+        strategy.initializeRing(NODES.subList(0, 3), Map.of(NODES.get(0), 4.0));
+        Map<String, Integer> counts = new HashMap<>();
+        String[] owners = owners(strategy);
+        for (String owner : owners) {
+            counts.merge(owner, 1, Integer::sum);
+        }
+        assertEquals(4.0 / 6, (double) counts.get(NODES.get(0)) / owners.length, 0.03, name);
+        assertEquals(1.0 / 6, (double) counts.get(NODES.get(1)) / owners.length, 0.03, name);
+
+        // Balance is judged against each node's weighted share, not an equal split
+        Map<?, ?> balance = (Map<?, ?>) strategy.getRingStats().get("balance");
+        assertEquals(1.0, ((Number) balance.get("maxOverMean")).doubleValue(), 0.15, name);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"consistent-hash", "jump", "rendezvous", "maglev"})
+    void aWeightIncreaseOnlyMovesKeysToThatNode(String name) {
+        RoutingStrategy strategy = create(name, NODES);
+        String[] before = owners(strategy);
+        strategy.addNode(NODES.get(1), 2.0);
+        String[] after = owners(strategy);
+
+        int gained = 0;
+        int elsewhere = 0;
+        for (int i = 0; i < before.length; i++) {
+            if (!before[i].equals(after[i])) {
+                if (after[i].equals(NODES.get(1))) {
+                    gained++;
+                } else {
+                    elsewhere++;
+                }
+            }
+        }
+        // Ideal movement for doubling one of five equal nodes: 2/6 - 1/5
+        assertEquals(2.0 / 6 - 1.0 / 5, (double) gained / before.length, 0.03, name);
+        assertTrue(elsewhere <= (name.equals("maglev") ? before.length * 0.03 : 0), name + ": " + elsewhere + " keys moved elsewhere");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"consistent-hash", "jump", "rendezvous", "maglev"})
+    void aWeightDecreaseOnlyMovesKeysAwayFromThatNode(String name) {
+        RoutingStrategy strategy = RoutingStrategy.create(name, 150, 65537);
+        strategy.initializeRing(NODES, Map.of(NODES.get(1), 2.0));
+        String[] before = owners(strategy);
+        strategy.addNode(NODES.get(1), 1.0);
+        String[] after = owners(strategy);
+
+        int elsewhere = 0;
+        for (int i = 0; i < before.length; i++) {
+            if (!before[i].equals(after[i]) && !before[i].equals(NODES.get(1))) {
+                elsewhere++;
+            }
+        }
+        assertTrue(elsewhere <= (name.equals("maglev") ? before.length * 0.03 : 0), name + ": " + elsewhere + " keys moved elsewhere");
+    }
+
+    @Test
+    void jumpRemovalFromTheMiddleOnlyMovesThatNodesKeys() {
+        RoutingStrategy strategy = new JumpHashRouting();
+        strategy.initializeRing(NODES);
+        String removed = NODES.get(2);
+        String[] before = owners(strategy);
+        strategy.removeNode(removed);
+        String[] after = owners(strategy);
+
+        Map<String, Integer> received = new HashMap<>();
+        for (int i = 0; i < before.length; i++) {
+            if (before[i].equals(removed)) {
+                received.merge(after[i], 1, Integer::sum);
+            } else {
+                assertEquals(before[i], after[i], "key_" + i);
+            }
+        }
+        // The released keys spread over the remaining nodes instead of going to the last one
+        assertEquals(4, received.size());
+        int released = received.values().stream().mapToInt(Integer::intValue).sum();
+        for (int count : received.values()) {
+            assertEquals(0.25, (double) count / released, 0.03);
+        }
+        assertEquals(4, strategy.getNodeCount());
+    }
+
+    @Test
+    void jumpRejoiningFillsTheHoleAndRestoresTheMapping() {
+        RoutingStrategy strategy = new JumpHashRouting();
+        strategy.initializeRing(NODES);
+        String[] original = owners(strategy);
+        strategy.removeNode(NODES.get(2));
+        String[] reduced = owners(strategy);
+        strategy.addNode("http://node-6:7001");
+        String[] rejoined = owners(strategy);
+
+        for (int i = 0; i < original.length; i++) {
+            if (!reduced[i].equals(rejoined[i])) {
+                assertEquals("http://node-6:7001", rejoined[i]);
+            }
+            // The new node took over the released bucket, so every other key is back where it was
+            String expected = original[i].equals(NODES.get(2)) ? "http://node-6:7001" : original[i];
+            assertEquals(expected, rejoined[i], "key_" + i);
+        }
+    }
+
+    @Test
+    void weightsThatRoundingWouldChangeAreRejected() {
+        ConsistentHashRing ring = new ConsistentHashRing(3);
+        // 3 virtual nodes per node: 1.1 would round back to 1.0
+        assertThrows(IllegalArgumentException.class, () -> ring.addNode("http://node-1:7001", 1.1));
+        assertTrue(ring.getNodes().isEmpty());
+        ring.addNode("http://node-1:7001", 2.0);
+        assertEquals(2.0, ring.effectiveWeight(2.0));
+
+        JumpHashRouting wholeBuckets = new JumpHashRouting();
+        assertThrows(IllegalArgumentException.class, () -> wholeBuckets.addNode("http://node-1:7001", 1.4));
+
+        JumpHashRouting finerBuckets = new JumpHashRouting(10);
+        finerBuckets.addNode("http://node-1:7001", 1.4);
+        assertEquals(1.4, finerBuckets.effectiveWeight(1.4), 1e-9);
+        assertEquals(1.4, new RendezvousRouting().effectiveWeight(1.4));
+    }
+}
@@ -0,0 +1,53 @@
+package org.limedb.node.service;
+
+import org.junit.jupiter.api.Test;
+import org.limedb.node.model.EntryChange;
+import org.limedb.node.repository.NodeRepository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class NodeServiceTest {
+
+    @Test
+    void listenersSeeWritesToAKeyInVersionOrder() throws Exception {
+        // Versions are handed out as the repository applies each write, like the row lock does
+        AtomicLong versions = new AtomicLong();
+        NodeRepository repository = mock(NodeRepository.class);
+        when(repository.set(anyString(), anyString(), any())).thenAnswer(invocation -> {
+            long version = versions.incrementAndGet();
+            Thread.yield(); // Widen the gap between commit and notification
+            return new EntryChange(null, null, invocation.getArgument(1), version, System.currentTimeMillis());
+        });
+
+        List<Long> seen = Collections.synchronizedList(new ArrayList<>());
+        EntryChangeListener listener = (key, change) -> seen.add(change.version());
+        NodeService service = new NodeService(repository, null, List.of(listener), null, null);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 8; i++) {
+            executor.execute(() -> {
+                for (int n = 0; n < 500; n++) {
+                    service.setLocal("counter", "v" + n);
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(4000, seen.size());
+        for (int i = 1; i < seen.size(); i++) {
+            assertTrue(seen.get(i) > seen.get(i - 1), "version " + seen.get(i) + " notified after " + seen.get(i - 1));
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package org.limedb.node.snapshot;
+
+import org.junit.jupiter.api.Test;
+import org.limedb.node.routing.HashRange;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotFormatTest {
+
+    private static final HashRange RANGE = new HashRange(Long.MAX_VALUE - 100, Long.MIN_VALUE + 100);
+    // Header: magic, version, range start and end
+    private static final int HEADER_LENGTH = 8 + 4 + 8 + 8;
+
+    @Test
+    void roundTripsRecordsAcrossBlocks() throws IOException {
+        List<SnapshotReader.Record> written = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            written.add(new SnapshotReader.Record(i * 7919L, "key:" + i, "välue " + i,
+                    i % 3 == 0 ? 1_900_000_000_000L + i : null));
+        }
+        written.add(new SnapshotReader.Record(-1, "", "", null));
+
+        byte[] snapshot = write(written, 4);
+        SnapshotReader reader = new SnapshotReader(new ByteArrayInputStream(snapshot));
+        assertEquals(RANGE, reader.getRange());
+
+        List<SnapshotReader.Record> read = new ArrayList<>();
+        List<SnapshotReader.Record> block;
+        int blocks = 0;
+        while ((block = reader.nextBlock()) != null) {
+            assertTrue(block.size() <= 4);
+            read.addAll(block);
+            blocks++;
+        }
+        assertEquals(7, blocks);
+        assertEquals(written, read);
+        assertNull(reader.nextBlock());
+    }
+
+    @Test
+    void emptySnapshotHasOnlyTheFooter() throws IOException {
+        byte[] snapshot = write(List.of(), 10);
+        assertEquals(HEADER_LENGTH + 4 + 8, snapshot.length);
+        assertNull(new SnapshotReader(new ByteArrayInputStream(snapshot)).nextBlock());
+    }
+
+    @Test
+    void corruptedPayloadFailsTheChecksum() throws IOException {
+        byte[] snapshot = write(List.of(new SnapshotReader.Record(42, "key", "value", null)), 10);
+        // First payload byte, after the block's record count and payload length
+        snapshot[HEADER_LENGTH + 8] ^= 0x01;
+
+        SnapshotReader reader = new SnapshotReader(new ByteArrayInputStream(snapshot));
+        IOException e = assertThrows(IOException.class, reader::nextBlock);
+        assertTrue(e.getMessage().contains("Checksum mismatch"), e.getMessage());
+    }
+
+    @Test
+    void corruptedChecksumIsDetected() throws IOException {
+        byte[] snapshot = write(List.of(new SnapshotReader.Record(42, "key", "value", null)), 10);
+        // The CRC sits right before the 12-byte footer
+        snapshot[snapshot.length - 12 - 1] ^= 0x01;
+
+        SnapshotReader reader = new SnapshotReader(new ByteArrayInputStream(snapshot));
+        assertThrows(IOException.class, reader::nextBlock);
+    }
+
+    @Test
+    void truncatedBlockIsDetected() throws IOException {
+        byte[] snapshot = write(List.of(new SnapshotReader.Record(42, "key", "value", null)), 10);
+        byte[] truncated = Arrays.copyOf(snapshot, HEADER_LENGTH + 8 + 5);
+
+        SnapshotReader reader = new SnapshotReader(new ByteArrayInputStream(truncated));
+        IOException e = assertThrows(IOException.class, reader::nextBlock);
+        assertTrue(e.getMessage().contains("truncated"), e.getMessage());
+    }
+
+    @Test
+    void footerCountMustMatchTheRecordsRead() throws IOException {
+        List<SnapshotReader.Record> records = List.of(
+                new SnapshotReader.Record(1, "a", "1", null), new SnapshotReader.Record(2, "b", "2", null));
+        byte[] snapshot = write(records, 1);
+        // Drop the second block but keep a footer claiming two records
+        int firstBlockEnd = HEADER_LENGTH + 4 + 4 + blockPayloadLength(snapshot) + 4;
+        ByteArrayOutputStream spliced = new ByteArrayOutputStream();
+        spliced.write(snapshot, 0, firstBlockEnd);
+        spliced.write(snapshot, snapshot.length - 12, 12);
+
+        SnapshotReader reader = new SnapshotReader(new ByteArrayInputStream(spliced.toByteArray()));
+        assertEquals(1, reader.nextBlock().size());
+        IOException e = assertThrows(IOException.class, reader::nextBlock);
+        assertTrue(e.getMessage().contains("footer lists 2 records, read 1"), e.getMessage());
+    }
+
+    @Test
+    void rejectsForeignFilesAndUnknownVersions() throws IOException {
+        assertThrows(IOException.class,
+                () -> new SnapshotReader(new ByteArrayInputStream("NOTASNAPSHOT".getBytes(StandardCharsets.US_ASCII))));
+
+        byte[] snapshot = write(List.of(), 10);
+        snapshot[SnapshotWriter.MAGIC.length + 3] = 99;
+        IOException e = assertThrows(IOException.class, () -> new SnapshotReader(new ByteArrayInputStream(snapshot)));
+        assertTrue(e.getMessage().contains("version 99"), e.getMessage());
+    }
+
+    private static byte[] write(List<SnapshotReader.Record> records, int blockRecords) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (SnapshotWriter writer = new SnapshotWriter(out, RANGE, blockRecords)) {
+            for (SnapshotReader.Record record : records) {
+                writer.write(record.keyHash(), record.key(), record.value(), record.expiresAt());
+            }
+            assertEquals(records.size(), writer.getTotalRecords());
+        }
+        return out.toByteArray();
+    }
+
+    private static int blockPayloadLength(byte[] snapshot) {
+        int offset = HEADER_LENGTH + 4;
+        return ((snapshot[offset] & 0xFF) << 24) | ((snapshot[offset + 1] & 0xFF) << 16)
+                | ((snapshot[offset + 2] & 0xFF) << 8) | (snapshot[offset + 3] & 0xFF);
+    }
+}
@@ -0,0 +1,192 @@
+package org.limedb.node.watch;
+
+import org.junit.jupiter.api.Test;
+import org.limedb.node.model.EntryChange;
+import org.limedb.node.routing.RoutingService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChangeFeedTest {
+
+    private static final String SELF = "http://localhost:7001";
+    private static final WatchFilter ALL = WatchFilter.of(null, "");
+
+    @Test
+    void deliversEventsInSequenceOrderWithTheirVersions() throws Exception {
+        ChangeFeed feed = feed(100, 100);
+        ChangeFeed.Subscription subscription = feed.subscribe(ALL, null);
+        feed.onEntryChanged("a", new EntryChange(null, null, "1", 10, now()));
+        feed.onEntryChanged("a", new EntryChange("1", null, null, 0, now()));
+
+        ChangeEvent set = subscription.poll(0);
+        assertEquals(1, set.sequence());
+        assertEquals(ChangeEvent.Type.SET, set.type());
+        assertEquals(10, set.version());
+        ChangeEvent delete = subscription.poll(0);
+        assertEquals(2, delete.sequence());
+        assertEquals(ChangeEvent.Type.DELETE, delete.type());
+        assertEquals("1", delete.previousValue());
+        assertNull(subscription.poll(0));
+    }
+
+    @Test
+    void expiredPreviousValuesAreReportedAsAbsent() throws Exception {
+        ChangeFeed feed = feed(100, 100);
+        ChangeFeed.Subscription subscription = feed.subscribe(ALL, null);
+        feed.onEntryChanged("a", new EntryChange("old", now() - 1000, "new", 3, now()));
+        assertNull(subscription.poll(0).previousValue());
+    }
+
+    @Test
+    void resumesAfterACursorInsideTheHistory() throws Exception {
+        ChangeFeed feed = feed(100, 100);
+        for (int i = 1; i <= 5; i++) {
+            set(feed, "k" + i, i);
+        }
+        ChangeFeed.Subscription subscription = feed.subscribe(ALL, position(feed, 2));
+        assertEquals(List.of(3L, 4L, 5L), sequences(subscription));
+    }
+
+    @Test
+    void historyIsKeptWithoutSubscribers() throws Exception {
+        ChangeFeed feed = feed(100, 100);
+        set(feed, "a", 1);
+        set(feed, "b", 2);
+        assertEquals(0, feed.getStats().get("subscribers"));
+        assertEquals(List.of(1L, 2L), sequences(feed.subscribe(ALL, position(feed, 0))));
+    }
+
+    @Test
+    void aCursorOlderThanTheHistoryStartsWithAReset() throws Exception {
+        ChangeFeed feed = feed(4, 100);
+        for (int i = 1; i <= 10; i++) {
+            set(feed, "k" + i, i);
+        }
+        ChangeFeed.Subscription subscription = feed.subscribe(ALL, position(feed, 1));
+        ChangeEvent reset = subscription.poll(0);
+        assertEquals(ChangeEvent.Type.RESET, reset.type());
+        assertEquals(10, reset.sequence());
+        assertNull(subscription.poll(0));
+
+        set(feed, "k11", 11);
+        assertEquals(11, subscription.poll(0).sequence());
+        assertEquals(1L, feed.getStats().get("resets"));
+    }
+
+    @Test
+    void aCursorFromAnotherEpochStartsWithAReset() throws Exception {
+        ChangeFeed feed = feed(100, 100);
+        set(feed, "a", 1);
+        ChangeFeed.Subscription subscription = feed.subscribe(ALL, "1-1");
+        assertEquals(ChangeEvent.Type.RESET, subscription.poll(0).type());
+    }
+
+    @Test
+    void aSubscriberThatFallsBehindOverflows() throws Exception {
+        ChangeFeed feed = feed(100, 3);
+        ChangeFeed.Subscription subscription = feed.subscribe(ALL, null);
+        for (int i = 1; i <= 5; i++) {
+            set(feed, "k" + i, i);
+        }
+        assertNull(subscription.poll(0));
+        assertTrue(subscription.isOverflowed());
+        assertEquals(0, feed.getStats().get("subscribers"));
+        assertEquals(1L, feed.getStats().get("overflows"));
+    }
+
+    @Test
+    void filtersSkipOtherKeys() throws Exception {
+        ChangeFeed feed = feed(100, 100);
+        ChangeFeed.Subscription subscription = feed.subscribe(WatchFilter.of("b", null), null);
+        set(feed, "a", 1);
+        set(feed, "b", 2);
+        set(feed, "ab", 3);
+        feed.onBulkLoad();
+        assertEquals("b", subscription.poll(0).key());
+        assertEquals(ChangeEvent.Type.RESET, subscription.poll(0).type());
+        assertNull(subscription.poll(0));
+    }
+
+    @Test
+    void aWaitingSubscriberIsWokenByAPublish() throws Exception {
+        ChangeFeed feed = feed(100, 100);
+        ChangeFeed.Subscription subscription = feed.subscribe(ALL, null);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<ChangeEvent> polled = executor.submit(() -> subscription.poll(10_000));
+            Thread.sleep(100);
+            set(feed, "a", 1);
+            assertEquals("a", polled.get(5, TimeUnit.SECONDS).key());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void concurrentPublishersAreReadInSequenceOrderWithoutGaps() throws Exception {
+        int writers = 8;
+        int perWriter = 2000;
+        ChangeFeed feed = feed(writers * perWriter, writers * perWriter);
+        ChangeFeed.Subscription subscription = feed.subscribe(ALL, null);
+
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        try {
+            for (int w = 0; w < writers; w++) {
+                int writer = w;
+                executor.execute(() -> {
+                    for (int i = 0; i < perWriter; i++) {
+                        set(feed, "w" + writer, i + 1);
+                    }
+                });
+            }
+            long expected = 1;
+            long[] lastVersion = new long[writers];
+            while (expected <= writers * perWriter) {
+                ChangeEvent event = subscription.poll(5000);
+                assertNotNull(event, "stalled before sequence " + expected);
+                assertEquals(expected++, event.sequence());
+                // Each writer's own events keep their order
+                int writer = Integer.parseInt(event.key().substring(1));
+                assertTrue(event.version() > lastVersion[writer]);
+                lastVersion[writer] = event.version();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertFalse(subscription.isOverflowed());
+    }
+
+    private static ChangeFeed feed(int historySize, int bufferSize) {
+        RoutingService routing = new RoutingService("consistent-hash", 3, 65537, "", 4096, List.of(SELF), 7001);
+        routing.initializeRing();
+        return new ChangeFeed(routing, historySize, bufferSize);
+    }
+
+    private static void set(ChangeFeed feed, String key, long version) {
+        feed.onEntryChanged(key, new EntryChange(null, null, "v" + version, version, now()));
+    }
+
+    private static String position(ChangeFeed feed, long sequence) {
+        return feed.getStats().get("epoch") + "-" + sequence;
+    }
+
+    private static List<Long> sequences(ChangeFeed.Subscription subscription) throws InterruptedException {
+        List<Long> sequences = new ArrayList<>();
+        ChangeEvent event;
+        while ((event = subscription.poll(0)) != null) {
+            sequences.add(event.sequence());
+        }
+        return sequences;
+    }
+
+    private static long now() {
+        return System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,42 @@
+package org.limedb.node.watch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WatchCursorTest {
+
+    @Test
+    void formatsAndParsesPositionsPerNode() {
+        Map<String, String> positions = new LinkedHashMap<>();
+        positions.put("http://node-1:7001", "1700000000000-42");
+        positions.put("http://node-2:7001", "1700000000001-7");
+        String cursor = WatchCursor.format(positions);
+        assertEquals("http://node-1:7001=1700000000000-42,http://node-2:7001=1700000000001-7", cursor);
+        assertEquals(positions, WatchCursor.parse(cursor));
+    }
+
+    @Test
+    void anEmptyCursorHasNoPositions() {
+        assertTrue(WatchCursor.parse(null).isEmpty());
+        assertTrue(WatchCursor.parse(" ").isEmpty());
+        assertEquals("", WatchCursor.format(Map.of()));
+    }
+
+    @Test
+    void splitsAtTheLastEqualsSign() {
+        // Node URLs may carry query strings; the position is always after the last '='
+        assertEquals(Map.of("http://node-1:7001/?a=b", "5-6"), WatchCursor.parse("http://node-1:7001/?a=b=5-6"));
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        assertThrows(IllegalArgumentException.class, () -> WatchCursor.parse("http://node-1:7001"));
+        assertThrows(IllegalArgumentException.class, () -> WatchCursor.parse("=5-6"));
+        assertThrows(IllegalArgumentException.class, () -> WatchCursor.parse("http://node-1:7001=5"));
+        assertThrows(IllegalArgumentException.class, () -> WatchCursor.parse("http://node-1:7001=a-b"));
+    }
+}